@@ -0,0 +1,58 @@
+package org.example.benchmark;
+
+import org.example.dto.BookQuery;
+import org.example.dto.BookSummary;
+import org.example.dto.PageResult;
+import org.example.model.Book;
+import org.example.repository.BookRepository;
+import org.example.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Több feltételes keresés: kliens oldali összefésülés több hívásból vs. egyetlen Specification lekérdezés
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private BookRepository bookRepository;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+        bookRepository = catalog.bean(BookRepository.class);
+        bookService = catalog.bean(BookService.class);
+    }
+
+    // A korábbi minta: szűrőnként egy hívás, metszet, rendezés és lapolás a kliensben
+    @Benchmark
+    public List<Book> multiCallTitleAndAuthor(CatalogState catalog) {
+        String word = CatalogState.randomWord();
+        Set<Long> byAuthor = bookRepository.findByAuthorId(catalog.randomAuthorId()).stream()
+                .map(Book::getId)
+                .collect(Collectors.toSet());
+        return bookRepository.findByTitleContainingIgnoreCase(word).stream()
+                .filter(book -> byAuthor.contains(book.getId()) && book.getTitle().startsWith(word))
+                .sorted(Comparator.comparing(Book::getTitle).thenComparing(Book::getId))
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public PageResult<BookSummary> specificationTitleAndAuthor(CatalogState catalog) {
+        BookQuery query = new BookQuery(CatalogState.randomWord(), catalog.randomAuthorId(), null, null);
+        return bookService.queryBooks(query, PageRequest.of(0, PAGE_SIZE, Sort.by("title")));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.benchmark;
+
+import org.example.Main;
+import org.example.dto.BulkAuthorRequest;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkItemResult;
+import org.example.service.BulkIngestionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Webszerver nélküli alkalmazáskontextus saját H2 adatbázissal, a megadott méretű katalógussal feltöltve
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    // Egy szerzőre jutó könyvek száma
+    private static final int BOOKS_PER_AUTHOR = 10;
+    private static final int SEED_CHUNK = 5000;
+
+    private static final String[] WORDS = {
+            "alma", "bölcsek", "csillag", "dal", "erdő", "föld", "gyémánt", "hajnal", "idő", "jég",
+            "kert", "láng", "malom", "nap", "ösvény", "part", "rét", "szél", "tenger", "út"
+    };
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    public ConfigurableApplicationContext context;
+    public List<Long> authorIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(Main.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        // A háttérben futó kezdő adatbetöltés ne versenyezzen a seed()-del
+                        "library.seed.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long randomAuthorId() {
+        return authorIds.get(ThreadLocalRandom.current().nextInt(authorIds.size()));
+    }
+
+    public static String randomWord() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+
+    private void seed() {
+        BulkIngestionService bulk = bean(BulkIngestionService.class);
+
+        int authorCount = Math.max(1, catalogSize / BOOKS_PER_AUTHOR);
+        List<BulkAuthorRequest> authors = new ArrayList<>(authorCount);
+        for (int i = 0; i < authorCount; i++) {
+            authors.add(new BulkAuthorRequest(randomWord() + " " + randomWord() + " " + i));
+        }
+        authorIds = bulk.createAuthors(authors).getItems().stream()
+                .map(BulkItemResult::getId)
+                .collect(Collectors.toList());
+
+        for (int from = 0; from < catalogSize; from += SEED_CHUNK) {
+            List<BulkBookRequest> books = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, catalogSize); i++) {
+                books.add(new BulkBookRequest(
+                        randomWord() + " " + randomWord() + " " + randomWord(),
+                        "seed-" + i,
+                        authorIds.get(i % authorCount)));
+            }
+            bulk.createBooks(books);
+        }
+    }
+}
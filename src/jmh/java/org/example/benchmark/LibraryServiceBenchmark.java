@@ -0,0 +1,87 @@
+package org.example.benchmark;
+
+import org.example.dto.BookSearchResult;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkResult;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.BookRepository;
+import org.example.service.BookSearchService;
+import org.example.service.BulkIngestionService;
+import org.example.service.LibraryService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Repository és szolgáltatás szintű forró útvonalak: áteresztőképesség és késleltetés-percentilisek
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LibraryServiceBenchmark {
+
+    private static final int BULK_SIZE = 100;
+
+    private LibraryService libraryService;
+    private BookRepository bookRepository;
+    private BookSearchService bookSearchService;
+    private BulkIngestionService bulkIngestionService;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+        libraryService = catalog.bean(LibraryService.class);
+        bookRepository = catalog.bean(BookRepository.class);
+        bookSearchService = catalog.bean(BookSearchService.class);
+        bulkIngestionService = catalog.bean(BulkIngestionService.class);
+    }
+
+    @Benchmark
+    public List<Book> getAllBooks() {
+        return libraryService.getAllBooks();
+    }
+
+    @Benchmark
+    public List<Book> getBooksByAuthorId(CatalogState catalog) {
+        return libraryService.getBooksByAuthorId(catalog.randomAuthorId());
+    }
+
+    // Az eredeti LIKE alapú keresés
+    @Benchmark
+    public List<Book> keywordSearchDatabase() {
+        return bookRepository.findByTitleOrAuthorNameContaining(CatalogState.randomWord());
+    }
+
+    // Ugyanaz a keresés az invertált indexből
+    @Benchmark
+    public BookSearchResult keywordSearchIndex() {
+        return bookSearchService.search(CatalogState.randomWord(), 0, 20);
+    }
+
+    @Benchmark
+    public Book createBook(CatalogState catalog) {
+        Author author = new Author();
+        author.setId(catalog.randomAuthorId());
+        Book book = new Book();
+        book.setTitle(CatalogState.randomWord());
+        book.setIsbn(UUID.randomUUID().toString());
+        book.setAuthor(author);
+        return libraryService.createBook(book);
+    }
+
+    // Soronkénti idő a tömeges felvitelnél, közvetlenül összevethető a createBook-kal
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public BulkResult createBooksBulk(CatalogState catalog) {
+        List<BulkBookRequest> requests = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            requests.add(new BulkBookRequest(CatalogState.randomWord(), UUID.randomUUID().toString(),
+                    catalog.randomAuthorId()));
+        }
+        return bulkIngestionService.createBooks(requests);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Book;
+import org.example.service.BookService;
+import org.example.service.LibraryService;
+import org.example.service.SerializedFragmentCache.Format;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A könyvlista szerializálása az alkalmazás saját ObjectMapper-eivel (JSON és CBOR, adatbázis nélkül mérve)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final TypeReference<List<Book>> BOOK_LIST = new TypeReference<>() {
+    };
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private BookService bookService;
+    private List<Book> books;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) throws JsonProcessingException {
+        objectMapper = catalog.bean(ObjectMapper.class);
+        cborMapper = catalog.bean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+        books = catalog.bean(LibraryService.class).getAllBooks();
+        bookService = catalog.bean(BookService.class);
+        json = objectMapper.writeValueAsBytes(books);
+        cbor = cborMapper.writeValueAsBytes(books);
+        System.out.printf("%n%d könyv: JSON %d bájt, CBOR %d bájt (%.0f%%)%n",
+                books.size(), json.length, cbor.length, 100.0 * cbor.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] serializeBookList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeBookListCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(books);
+    }
+
+    // A hívó szolgáltatások oldala: a válasz beolvasása
+    @Benchmark
+    public List<Book> deserializeBookList() throws IOException {
+        return objectMapper.readValue(json, BOOK_LIST);
+    }
+
+    @Benchmark
+    public List<Book> deserializeBookListCbor() throws IOException {
+        return cborMapper.readValue(cbor, BOOK_LIST);
+    }
+
+    // GET /api/books régen: entitások betöltése és teljes szerializálás kérésenként
+    @Benchmark
+    public void loadAndSerializeBookList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), bookService.findAllBooks());
+    }
+
+    // GET /api/books most: verzió lekérdezés, a cache-elt töredékek kiírása
+    @Benchmark
+    public void writeCachedBookFragments() throws IOException {
+        Format.JSON.writeArray(bookService.findAllBookFragments(Format.JSON), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeCachedBookFragmentsCbor() throws IOException {
+        Format.CBOR.writeArray(bookService.findAllBookFragments(Format.CBOR), OutputStream.nullOutputStream());
+    }
+}
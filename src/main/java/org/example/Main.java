@@ -7,6 +7,8 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 
+import java.lang.management.ManagementFactory;
+
 @SpringBootApplication
 @Slf4j
 public class Main {
@@ -26,10 +28,12 @@ public class Main {
         String port = env.getProperty("server.port", "8080");
         String contextPath = env.getProperty("server.servlet.context-path", "");
 
-        log.info("🚀 Könyvtár alkalmazás sikeresen elindult!");
+        log.info("🚀 Könyvtár alkalmazás sikeresen elindult! ({} ms a JVM indulása óta)",
+                ManagementFactory.getRuntimeMXBean().getUptime());
         log.info("📚 Elérhető címek:");
         log.info("   • Könyvek API: http://localhost:{}{}/api/books", port, contextPath);
         log.info("   • Szerzők API: http://localhost:{}{}/api/authors", port, contextPath);
         log.info("   • H2 Konzol: http://localhost:{}{}/h2-console", port, contextPath);
+        log.info("   • Metrikák: http://localhost:{}{}/actuator/prometheus", port, contextPath);
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.web.AdmissionControlInterceptor;
+import org.example.web.AdmissionProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Admission control a könyv és szerző API előtt (library.admission.*, kikapcsolható: library.admission.enabled=false)
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public AdmissionConfig(AdmissionProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // A metrika nélküli tesztszeletekben (pl. @WebMvcTest) is működjön
+        registry.addInterceptor(new AdmissionControlInterceptor(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new)))
+                .addPathPatterns("/api/books/**", "/api/authors/**");
+    }
+}
@@ -1,50 +1,95 @@
 package org.example.config;
 
-import org.example.model.Author;
-import org.example.model.Book;
+import lombok.extern.slf4j.Slf4j;
+import org.example.event.CatalogChangePublisher;
+import org.example.event.CatalogResetEvent;
+import org.example.importer.CatalogImportService;
+import org.example.importer.ImportFormat;
+import org.example.importer.ImportJob;
 import org.example.repository.AuthorRepository;
 import org.example.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+// Induló adatok a háttérben: a meglévő adatok törlése táblánként egyetlen DELETE utasítással,
+// majd a library.seed.file importálása. Amíg tart, a readiness csoport (catalogSeed) OUT_OF_SERVICE.
+// A parancssori import (CatalogImportRunner) utána fut, így a törlés nem érinti az importált adatot.
 @Configuration
+@ConditionalOnProperty(name = "library.seed.enabled", havingValue = "true")
+@Order(0)
+@Slf4j
 public class DataLoader implements CommandLineRunner {
 
     private final AuthorRepository authorRepo;
     private final BookRepository bookRepo;
+    private final CatalogImportService catalogImportService;
+    private final CatalogChangePublisher catalogChangePublisher;
+    private final TransactionTemplate transaction;
+    private final ResourceLoader resourceLoader;
+    private final String seedFile;
 
-    public DataLoader(AuthorRepository authorRepo, BookRepository bookRepo) {
+    private volatile Health seedHealth = Health.outOfService().withDetail("state", "pending").build();
+
+    public DataLoader(AuthorRepository authorRepo,
+                      BookRepository bookRepo,
+                      CatalogImportService catalogImportService,
+                      CatalogChangePublisher catalogChangePublisher,
+                      PlatformTransactionManager transactionManager,
+                      ResourceLoader resourceLoader,
+                      @Value("${library.seed.file:classpath:seed/catalog.csv}") String seedFile) {
         this.authorRepo = authorRepo;
         this.bookRepo = bookRepo;
+        this.catalogImportService = catalogImportService;
+        this.catalogChangePublisher = catalogChangePublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.resourceLoader = resourceLoader;
+        this.seedFile = seedFile;
+    }
+
+    @Bean
+    public HealthIndicator catalogSeedHealthIndicator() {
+        return () -> seedHealth;
     }
 
     @Override
     public void run(String... args) {
-        // Először töröljük a meglévő adatokat a tiszta kezdéshez
-        bookRepo.deleteAll();
-        authorRepo.deleteAll();
-
-        try {
-            // J.K. Rowling és könyve
-            Author rowling = new Author();
-            rowling.setName("J.K. Rowling");
-            rowling = authorRepo.save(rowling);
-
-            Book harryPotter = new Book();
-            harryPotter.setTitle("Harry Potter és a bölcsek köve");
-            harryPotter.setIsbn("963-8386-87-0");
-            harryPotter.setAuthor(rowling);
-            bookRepo.save(harryPotter);
-
-            // Stephen King
-            Author king = new Author();
-            king.setName("Stephen King");
-            authorRepo.save(king);
-
-            System.out.println("Adatbázis inicializálása sikeres!");
-        } catch (Exception e) {
-            System.err.println("Hiba az adatbázis inicializálása során: " + e.getMessage());
-            throw e;
-        }
+        Resource seed = resourceLoader.getResource(seedFile);
+        ImportFormat format = ImportFormat.fromFileName(seed.getFilename());
+        seedHealth = Health.outOfService().withDetail("state", "seeding").withDetail("file", seedFile).build();
+        long start = System.currentTimeMillis();
+        catalogImportService.submit(seed, format, this::truncate).whenComplete((job, error) -> {
+            if (error == null && job.getState() == ImportJob.State.COMPLETED) {
+                seedHealth = Health.up()
+                        .withDetail("file", seedFile)
+                        .withDetail("books", job.getBooksCreated().get())
+                        .withDetail("authors", job.getAuthorsCreated().get())
+                        .build();
+                log.info("Adatbázis inicializálása sikeres! ({} ms)", System.currentTimeMillis() - start);
+            } else {
+                String reason = error != null ? error.getMessage() : job.getError();
+                seedHealth = Health.down().withDetail("file", seedFile).withDetail("error", String.valueOf(reason)).build();
+                log.error("Hiba az adatbázis inicializálása során: {}", reason);
+            }
+        });
+    }
+
+    // A deleteAllInBatch egy JPQL DELETE utasítás (nem tölti be és törli egyenként az entitásokat),
+    // ezért a Hibernate események helyett egy reset eseményt küldünk
+    private void truncate() {
+        transaction.executeWithoutResult(status -> {
+            bookRepo.deleteAllInBatch();
+            authorRepo.deleteAllInBatch();
+            catalogChangePublisher.publishAfterCommit(new CatalogResetEvent(System.currentTimeMillis()));
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package org.example.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dto.CacheRegionStats;
+import org.example.service.CacheStatisticsService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.util.function.ToLongFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    // A @Timed annotációval jelölt szolgáltatások metódusonkénti időmérése
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // A második szintű cache régiók akkor léteznek, amikor a SessionFactory már elindult
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCacheMetrics(ApplicationReadyEvent event) {
+        MeterRegistry registry = event.getApplicationContext().getBean(MeterRegistry.class);
+        CacheStatisticsService statistics = event.getApplicationContext().getBean(CacheStatisticsService.class);
+        for (CacheRegionStats region : statistics.getStatistics()) {
+            String name = region.getRegion();
+            counter(registry, statistics, name, "library.cache.gets", "hit", CacheRegionStats::getHits);
+            counter(registry, statistics, name, "library.cache.gets", "miss", CacheRegionStats::getMisses);
+            counter(registry, statistics, name, "library.cache.puts", null, CacheRegionStats::getPuts);
+            counter(registry, statistics, name, "library.cache.evictions", null, CacheRegionStats::getEvictions);
+        }
+    }
+
+    private static void counter(MeterRegistry registry, CacheStatisticsService statistics, String region,
+                                String name, String result, ToLongFunction<CacheRegionStats> value) {
+        FunctionCounter.Builder<CacheStatisticsService> builder = FunctionCounter
+                .builder(name, statistics, s -> s.getStatistics().stream()
+                        .filter(stats -> stats.getRegion().equals(region))
+                        .mapToLong(value)
+                        .sum())
+                .tag("region", region);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// Csak olvasó tranzakciók (@Transactional(readOnly = true)) a replikára, minden más az elsődleges adatbázisra.
+// Írás után a megadott késleltetési ablakon belül az olvasások is az elsődlegesre mennek, így a replika
+// lemaradása miatt a kliens nem látja visszafelé a saját módosítását.
+// A tranzakció jellege csak a tranzakció indítása után ismert, ezért LazyConnectionDataSourceProxy mögött használjuk.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final long maxLagNanos;
+    // Eddig az időpontig (System.nanoTime) az olvasások is az elsődleges adatbázisra mennek
+    private volatile long primaryUntil = System.nanoTime();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag) {
+        this.maxLagNanos = maxLag.toNanos();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return System.nanoTime() - primaryUntil < 0 ? Target.PRIMARY : Target.REPLICA;
+        }
+        // Író tranzakció: az ablak a lezárásától számít. Tranzakción kívül (séma, karbantartás) nem jelölünk.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    primaryUntil = System.nanoTime() + maxLagNanos;
+                }
+            });
+        }
+        return Target.PRIMARY;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.tools.Restore;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Induláskor, még az adatforrás létrehozása előtt visszaállítja az adatbázist egy pillanatképből,
+// ha a library.storage.restore-from meg van adva és az adatkönyvtárban még nincs adatbázis.
+// Meglévő adatbázist soha nem ír felül.
+@Component
+@Slf4j
+public class SnapshotRestoreConfig implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String DATABASE_NAME = "librarydb";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        String snapshot = environment.getProperty("library.storage.restore-from", "");
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        Path dataDir = Paths.get(environment.getProperty("library.storage.data-dir", "./data"));
+        if (Files.exists(dataDir.resolve(DATABASE_NAME + ".mv.db"))) {
+            log.info("Az adatbázis már létezik ({}), a pillanatkép visszaállítása kimarad", dataDir);
+            return;
+        }
+        if (!Files.isRegularFile(Paths.get(snapshot))) {
+            throw new IllegalStateException("Snapshot file not found: " + snapshot);
+        }
+        long start = System.currentTimeMillis();
+        Restore.execute(snapshot, dataDir.toString(), DATABASE_NAME);
+        log.info("Adatbázis visszaállítva a pillanatképből: {} ({} ms)", snapshot, System.currentTimeMillis() - start);
+    }
+}
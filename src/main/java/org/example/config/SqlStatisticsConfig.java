@@ -0,0 +1,62 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.jdbc.SqlMetrics;
+import org.example.jdbc.StatementCountingAspect;
+import org.example.jdbc.StatementCountingDataSource;
+import org.example.web.SqlStatisticsFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// SQL utasítás statisztika (library.sql-stats.*): a "dataSource" bean (replikás módban az útválasztó is)
+// számláló proxyt kap, a kérésekre és a szolgáltatás metódusokra fejléc, metrika és lassú utasítás napló
+@Configuration
+@ConditionalOnProperty(value = "library.sql-stats.enabled")
+public class SqlStatisticsConfig {
+
+    // BeanPostProcessor: statikus, hogy a konfiguráció többi része ne inicializálódjon túl korán
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(Environment environment) {
+        Duration slowThreshold = environment.getProperty("library.sql-stats.slow-threshold", Duration.class,
+                Duration.ofMillis(200));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource
+                        && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource((DataSource) bean, slowThreshold);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlMetrics sqlMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SqlMetrics(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public StatementCountingAspect statementCountingAspect(SqlMetrics sqlMetrics) {
+        return new StatementCountingAspect(sqlMetrics);
+    }
+
+    // A többi szűrő előtt, hogy a teljes kérést lefedje
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(SqlMetrics sqlMetrics) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(new SqlStatisticsFilter(sqlMetrics));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
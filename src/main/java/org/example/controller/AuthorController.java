@@ -1,12 +1,32 @@
 package org.example.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.dto.AuthorBooksResult;
+import org.example.dto.AuthorPatch;
+import org.example.dto.AuthorSummary;
+import org.example.dto.BulkAuthorRequest;
+import org.example.dto.BulkResult;
+import org.example.dto.DeleteResult;
+import org.example.dto.PageResult;
+import org.example.event.CatalogVersion;
+import org.example.exception.InvalidRequestException;
 import org.example.model.Author;
 import org.example.repository.AuthorRepository;
+import org.example.service.AuthorService;
+import org.example.service.BulkIngestionService;
+import org.example.service.SerializedFragmentCache.Format;
+import org.example.web.Admission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/authors")
@@ -14,14 +34,45 @@ import java.util.List;
 public class AuthorController {
 
     private final AuthorRepository authorRepository;
+    private final AuthorService authorService;
+    private final BulkIngestionService bulkIngestionService;
+    private final CatalogVersion catalogVersion;
 
+    // Feltételes GET: változatlan katalógusnál 304, betöltés és szerializálás nélkül.
+    // Egyébként a szerzőnként cache-elt JSON vagy CBOR töredékeket írjuk ki közvetlenül.
+    @Admission("scan")
     @GetMapping
-    public List<Author> getAllAuthors() {
-        return authorRepository.findAll();
+    public void getAllAuthors(WebRequest request, HttpServletResponse response) throws IOException {
+        Format format = Format.forAccept(request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(format.etag(catalogVersion.etag("authors")), catalogVersion.lastModified())) {
+            return;
+        }
+        List<byte[]> fragments = authorService.findAllAuthorFragments(format);
+        response.setContentType(format.getMediaType().toString());
+        response.setContentLengthLong(format.arrayLength(fragments));
+        format.writeArray(fragments, response.getOutputStream());
+    }
+
+    // Lapozott lista könyvszámokkal: GET /api/authors?withCounts=true&page=0&size=20&sort=bookCount,desc
+    @GetMapping(params = "withCounts=true")
+    public PageResult<AuthorSummary> getAuthorsWithCounts(@PageableDefault(size = 20) Pageable pageable) {
+        return authorService.findAuthorSummaries(pageable);
+    }
+
+    // Több szerző könyvei egy kérésben: GET /api/authors/books?ids=1,2,3
+    @Admission("search")
+    @GetMapping("/books")
+    public AuthorBooksResult getBooksByAuthorIds(@RequestParam List<Long> ids) {
+        return authorService.findBooksByAuthorIds(ids);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Author> getAuthorById(@PathVariable Long id) {
+    public ResponseEntity<Author> getAuthorById(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = authorRepository.findVersionById(id);
+        Format format = Format.forAccept(request.getHeader(HttpHeaders.ACCEPT));
+        if (version.isPresent() && request.checkNotModified(format.etag("\"author-" + id + "-" + version.get() + "\""))) {
+            return null;
+        }
         return authorRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -29,9 +80,19 @@ public class AuthorController {
 
     @PostMapping
     public Author createAuthor(@RequestBody Author author) {
+        // A name oszlop NOT NULL: adatbázis hiba (500) helyett 400
+        if (author.getName() == null) {
+            throw new InvalidRequestException("Author name is required");
+        }
         return authorRepository.save(author);
     }
 
+    // Tömeges felvitel: elemenkénti eredménnyel, egy tranzakcióban
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> createAuthors(@RequestBody List<BulkAuthorRequest> requests) {
+        return ResponseEntity.ok(bulkIngestionService.createAuthors(requests));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Author> updateAuthor(@PathVariable Long id, @RequestBody Author author) {
         return authorRepository.findById(id)
@@ -42,13 +103,14 @@ public class AuthorController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Átnevezés egy adatbázis-utasítással; elavult version esetén 409
+    @PatchMapping("/{id}")
+    public ResponseEntity<AuthorPatch> patchAuthor(@PathVariable Long id, @RequestBody AuthorPatch patch) {
+        return ResponseEntity.ok(authorService.patchAuthor(id, patch));
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteAuthor(@PathVariable Long id) {
-        return authorRepository.findById(id)
-                .map(author -> {
-                    authorRepository.delete(author);
-                    return ResponseEntity.ok().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<DeleteResult> deleteAuthor(@PathVariable Long id) {
+        return ResponseEntity.ok(authorService.deleteAuthor(id));
     }
 }
\ No newline at end of file
@@ -1,41 +1,216 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.example.dto.BookPatch;
+import org.example.dto.BookQuery;
+import org.example.dto.BookSearchResult;
+import org.example.dto.BookSummary;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkResult;
+import org.example.dto.CursorPage;
+import org.example.dto.DeleteResult;
+import org.example.dto.PageResult;
+import org.example.dto.PendingBook;
+import org.example.event.CatalogVersion;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ResourceNotFoundException;
 import org.example.model.Book;
+import org.example.service.BookSearchService;
 import org.example.service.BookService;
+import org.example.service.BookWriteBehindService;
+import org.example.service.BulkIngestionService;
+import org.example.service.SerializedFragmentCache.Format;
+import org.example.web.Admission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
+    // Egy lapon visszaadható könyvek maximális száma
+    static final int MAX_PAGE_LIMIT = 1000;
+
+    // Ennyi könyvenként ürítjük a kimeneti puffert folyamos válasznál
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+
     private final BookService bookService;
+    private final BookSearchService bookSearchService;
+    private final BulkIngestionService bulkIngestionService;
+    private final BookWriteBehindService bookWriteBehindService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService,
+                          BookSearchService bookSearchService,
+                          BulkIngestionService bulkIngestionService,
+                          BookWriteBehindService bookWriteBehindService,
+                          ObjectMapper objectMapper,
+                          CatalogVersion catalogVersion) {
         this.bookService = bookService;
+        this.bookSearchService = bookSearchService;
+        this.bulkIngestionService = bulkIngestionService;
+        this.bookWriteBehindService = bookWriteBehindService;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
     }
 
+    // Feltételes GET: változatlan katalógusnál 304, betöltés és szerializálás nélkül.
+    // Egyébként a könyvenként cache-elt JSON vagy CBOR töredékeket írjuk ki közvetlenül.
+    @Admission("scan")
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        return ResponseEntity.ok(bookService.findAllBooks());
+    public void getAllBooks(WebRequest request, HttpServletResponse response) throws IOException {
+        Format format = Format.forAccept(request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(format.etag(catalogVersion.etag("books")), catalogVersion.lastModified())) {
+            return;
+        }
+        List<byte[]> fragments = bookService.findAllBookFragments(format);
+        response.setContentType(format.getMediaType().toString());
+        response.setContentLengthLong(format.arrayLength(fragments));
+        format.writeArray(fragments, response.getOutputStream());
+    }
+
+    // Keyset lapozás: GET /api/books?limit=100&after=<előző lap nextCursor értéke>
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Book>> getBooksPage(
+            @RequestParam int limit,
+            @RequestParam(defaultValue = "0") Long after) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        return ResponseEntity.ok(bookService.findBooksAfter(after, pageSize));
+    }
+
+    // Könnyű listanézet (id, cím, ISBN, szerző azonosító és név) egyetlen SQL utasításból
+    @Admission("scan")
+    @GetMapping("/summaries")
+    public ResponseEntity<List<BookSummary>> getBookSummaries(WebRequest request) {
+        Format format = Format.forAccept(request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(format.etag(catalogVersion.etag("book-summaries")), catalogVersion.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok(bookService.findAllBookSummaries());
+    }
+
+    @GetMapping(value = "/summaries", params = "limit")
+    public ResponseEntity<CursorPage<BookSummary>> getBookSummariesPage(
+            @RequestParam int limit,
+            @RequestParam(defaultValue = "0") Long after) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        return ResponseEntity.ok(bookService.findBookSummariesAfter(after, pageSize));
+    }
+
+    // A teljes katalógus JSON tömbként, soronként kiírva
+    @Admission("scan")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBooksAsJsonArray() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writeBooks(out, true));
+    }
+
+    // A teljes katalógus soronként egy JSON objektumként (NDJSON)
+    @Admission("scan")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBooksAsNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> writeBooks(out, false));
+    }
+
+    // Teljes szöveges keresés címben és szerzőnévben, relevancia szerint rendezve
+    @Admission("search")
+    @GetMapping("/search")
+    public ResponseEntity<BookSearchResult> searchBooks(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookSearchService.search(query, page, size));
+    }
+
+    // ISBN alapú lekérdezés a memóriabeli indexből (elválasztójelekkel vagy nélkülük, ISBN-10 vagy -13)
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn) {
+        return bookSearchService.findByIsbn(isbn)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Összetett szűrés: GET /api/books/query?title=&authorId=&authorName=&isbn=&sort=title,asc&page=0&size=20
+    @Admission("search")
+    @GetMapping("/query")
+    public ResponseEntity<PageResult<BookSummary>> queryBooks(
+            BookQuery query,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(bookService.queryBooks(query, pageable));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<Book> getBookById(@PathVariable Long id, WebRequest request) {
+        Optional<String> etag = bookService.findBookETag(id);
+        Format format = Format.forAccept(request.getHeader(HttpHeaders.ACCEPT));
+        if (etag.isPresent() && request.checkNotModified(format.etag(etag.get()))) {
+            return null;
+        }
         return bookService.findBookById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Prefer: respond-async fejléccel (és bekapcsolt write-behind móddal) 202: a könyv sorba kerül,
+    // az eredmény a Location címen kérdezhető le; egyébként szinkron felvitel, 201
     @PostMapping
-    public ResponseEntity<Book> createBook(@RequestBody Book book) {
+    public ResponseEntity<?> createBook(@RequestBody Book book,
+                                        @RequestHeader(value = "Prefer", required = false) String prefer) {
+        // Megadott id mellett a save() egy meglévő könyvet írna felül (vagy más id-vel szúrna be),
+        // és a szerzők könyvszáma elcsúszna: a módosítás a PUT/PATCH dolga
+        if (book.getId() != null) {
+            throw new InvalidRequestException("Book id must not be set when creating a book");
+        }
+        if (bookWriteBehindService.accepts(prefer)) {
+            PendingBook pending = bookWriteBehindService.submit(book);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/pending/{id}")
+                    .buildAndExpand(pending.getId())
+                    .toUri();
+            return ResponseEntity.accepted()
+                    .location(location)
+                    .header("Preference-Applied", "respond-async")
+                    .body(pending);
+        }
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(bookService.saveBook(book));
     }
 
+    @GetMapping("/pending/{id}")
+    public PendingBook getPendingBook(@PathVariable String id) {
+        return bookWriteBehindService.findStatus(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pending book not found with id: " + id));
+    }
+
+    // Tömeges felvitel: elemenkénti eredménnyel, egy tranzakcióban
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> createBooks(@RequestBody List<BulkBookRequest> requests) {
+        return ResponseEntity.ok(bulkIngestionService.createBooks(requests));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Book> updateBook(
             @PathVariable Long id,
@@ -43,9 +218,40 @@ public class BookController {
         return ResponseEntity.ok(bookService.updateBook(id, bookDetails));
     }
 
+    // Részleges módosítás (cím, ISBN) egy adatbázis-utasítással; elavult version esetén 409
+    @PatchMapping("/{id}")
+    public ResponseEntity<BookPatch> patchBook(@PathVariable Long id, @RequestBody BookPatch patch) {
+        return ResponseEntity.ok(bookService.patchBook(id, patch));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
         bookService.deleteBook(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Csoportos törlés: DELETE /api/books?ids=1,2,3 (egy utasítás); a nem létező id-k a válaszban
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<DeleteResult> deleteBooks(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(bookService.deleteBooks(ids));
+    }
+
+    private void writeBooks(OutputStream out, boolean asArray) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (SequenceWriter sequence = asArray
+                ? writer.writeValuesAsArray(out)
+                : writer.withRootValueSeparator("\n").writeValues(out)) {
+            int[] count = {0};
+            bookService.streamAllBooks(book -> {
+                try {
+                    sequence.write(book);
+                    if (++count[0] % STREAM_FLUSH_INTERVAL == 0) {
+                        sequence.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.CacheRegionStats;
+import org.example.service.CacheStatisticsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/stats")
+    public List<CacheRegionStats> getStatistics() {
+        return cacheStatisticsService.getStatistics();
+    }
+}
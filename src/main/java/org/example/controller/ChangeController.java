@@ -0,0 +1,31 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.service.ChangeFeedService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Könyv- és szerzőváltozások Server-Sent Events folyamként, a teljes lista lekérdezése és összehasonlítása helyett.
+// Inkrementális szinkron: 1) feliratkozás, 2) egyszeri teljes letöltés (GET /api/books, /api/authors),
+// 3) a "change" események alkalmazása (type, id, operation, version; a verzió alapján idempotensen),
+// "reset" eseménynél a teljes letöltés megismétlése. Visszacsatlakozáskor a Last-Event-ID-től folytatódik.
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private final ChangeFeedService changeFeedService;
+
+    // A Last-Event-ID fejlécet a böngészők EventSource-a automatikusan küldi; a paraméter más klienseknek
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        return changeFeedService.subscribe(lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+}
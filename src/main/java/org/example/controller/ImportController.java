@@ -0,0 +1,65 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ResourceNotFoundException;
+import org.example.importer.CatalogImportService;
+import org.example.importer.ImportFormat;
+import org.example.importer.ImportJob;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    // Katalógus import: a törzs CSV (text/csv) vagy NDJSON (application/x-ndjson).
+    // A törzset ideiglenes fájlba mentjük, az import a háttérben fut; az állapot a Location címen kérdezhető le.
+    @PostMapping
+    public ResponseEntity<ImportJob> startImport(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "0") long skip) throws IOException {
+        if (skip < 0) {
+            throw new InvalidRequestException("skip must not be negative");
+        }
+        ImportFormat importFormat = format != null
+                ? ImportFormat.parse(format)
+                : ImportFormat.fromContentType(request.getContentType() != null ? MediaType.parseMediaType(request.getContentType()) : null);
+
+        Path spoolFile = Files.createTempFile("catalog-import-", "." + importFormat.name().toLowerCase(Locale.ROOT));
+        try (InputStream in = request.getInputStream()) {
+            Files.copy(in, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spoolFile);
+            throw e;
+        }
+
+        ImportJob job = catalogImportService.submit(spoolFile, importFormat, skip);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ImportJob getImport(@PathVariable String id) {
+        return catalogImportService.findJob(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with id: " + id));
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.StorageSnapshot;
+import org.example.service.StorageSnapshotService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/snapshots")
+@ConditionalOnProperty("library.storage.snapshot-dir")
+@RequiredArgsConstructor
+public class StorageController {
+
+    private final StorageSnapshotService storageSnapshotService;
+
+    // Pillanatkép készítése a futó adatbázisról (csak fájl alapú tárolással, pl. prod profil)
+    @PostMapping
+    public ResponseEntity<StorageSnapshot> createSnapshot() throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(storageSnapshotService.createSnapshot());
+    }
+}
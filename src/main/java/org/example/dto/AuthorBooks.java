@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Egy szerző és a könyvei a csoportos lekérdezés válaszában
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorBooks {
+    private Long id;
+    private String name;
+    private List<BookSummary> books;
+}
@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// GET /api/authors/books válasza: a megtalált szerzők a kérés sorrendjében és a nem létező id-k
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorBooksResult {
+    private List<AuthorBooks> authors;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,33 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+// Részleges szerzőmódosítás (PATCH /api/authors/{id}): a version az ismert verzió (optimista zárolás)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorPatch {
+    private Long version;
+    private String name;
+
+    // Nem módosítható vagy ismeretlen mezők: csendes eldobás helyett 400-zal utasítjuk el
+    @JsonIgnore
+    private Set<String> unsupportedFields = new TreeSet<>();
+
+    public AuthorPatch(Long version, String name) {
+        this.version = version;
+        this.name = name;
+    }
+
+    @JsonAnySetter
+    public void unsupportedField(String name, Object value) {
+        unsupportedFields.add(name);
+    }
+}
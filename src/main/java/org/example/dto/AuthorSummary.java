@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Szerző a könyvei számával; csak az author táblából olvasva
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorSummary {
+    private Long id;
+    private String name;
+    private int bookCount;
+}
@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Egy szerző azonosítója és verziója: a szerző JSON-ja csak ettől függ
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorVersion {
+    private Long id;
+    private Long version;
+}
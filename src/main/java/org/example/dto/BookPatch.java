@@ -0,0 +1,36 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+// Részleges könyvmódosítás (PATCH /api/books/{id}): a null mező változatlan marad,
+// a version az ismert verzió (optimista zárolás). Válaszként a módosítás utáni állapot.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPatch {
+    private Long version;
+    private String title;
+    private String isbn;
+
+    // Nem módosítható vagy ismeretlen mezők: csendes eldobás helyett 400-zal utasítjuk el
+    @JsonIgnore
+    private Set<String> unsupportedFields = new TreeSet<>();
+
+    public BookPatch(Long version, String title, String isbn) {
+        this.version = version;
+        this.title = title;
+        this.isbn = isbn;
+    }
+
+    @JsonAnySetter
+    public void unsupportedField(String name, Object value) {
+        unsupportedFields.add(name);
+    }
+}
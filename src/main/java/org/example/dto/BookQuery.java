@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A /api/books/query szűrői; a meg nem adott feltételek nem kerülnek a lekérdezésbe
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookQuery {
+    private String title;
+    private Long authorId;
+    private String authorName;
+    private String isbn;
+}
@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Egy keresési lap: a találatok relevancia szerint rendezve és az összes találat száma
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchResult {
+    private long total;
+    private int page;
+    private int size;
+    private List<BookSearchHit> hits;
+}
@@ -0,0 +1,30 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.hibernate.Hibernate;
+
+// Könyv lapos, entitásgráf nélküli nézete listázáshoz és indexeléshez
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSummary {
+    private Long id;
+    private String title;
+    private String isbn;
+    private Long authorId;
+    private String authorName;
+
+    public static BookSummary from(Book book) {
+        Author author = book.getAuthor();
+        if (author == null) {
+            return new BookSummary(book.getId(), book.getTitle(), book.getIsbn(), null, null);
+        }
+        // Be nem töltött proxy esetén nem indítunk külön lekérdezést a névért
+        String authorName = Hibernate.isInitialized(author) ? author.getName() : null;
+        return new BookSummary(book.getId(), book.getTitle(), book.getIsbn(), author.getId(), authorName);
+    }
+}
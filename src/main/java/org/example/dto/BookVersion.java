@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Egy könyv és szerzője verziója: a könyv JSON-ja mindkettőtől függ
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookVersion {
+    private Long id;
+    private Long version;
+    private Long authorVersion;
+}
@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Egy tömeges kérés elemének eredménye; az index a kérésbeli pozíció
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+
+    public enum Status { CREATED, REJECTED }
+
+    private int index;
+    private Status status;
+    private Long id;
+    private String error;
+
+    public static BulkItemResult created(int index, Long id) {
+        return new BulkItemResult(index, Status.CREATED, id, null);
+    }
+
+    public static BulkItemResult rejected(int index, String error) {
+        return new BulkItemResult(index, Status.REJECTED, null, error);
+    }
+}
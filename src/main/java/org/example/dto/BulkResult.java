@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+    private int created;
+    private int rejected;
+    private List<BulkItemResult> items;
+
+    public static BulkResult of(List<BulkItemResult> items) {
+        int created = (int) items.stream().filter(item -> item.getStatus() == BulkItemResult.Status.CREATED).count();
+        return new BulkResult(created, items.size() - created, items);
+    }
+}
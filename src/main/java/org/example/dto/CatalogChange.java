@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A változásfolyam (/api/changes) egy eseménye: BOOK vagy AUTHOR, CREATE/UPDATE/DELETE és a
+// változás utáni verzió; CATALOG/RESET esetén a kliensnek teljes újraszinkronizálás kell
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChange {
+    private String type;
+    private Long id;
+    private String operation;
+    private Long version;
+}
@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Halmazalapú törlés eredménye: a törölt könyvek és szerzők száma, valamint a nem létező id-k
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteResult {
+    private int deletedBooks;
+    private int deletedAuthors;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,26 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Oldalszámos lap tömör JSON alakja
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResult<T> {
+    private List<T> items;
+    private int page;
+    private int size;
+    private long total;
+
+    public static <S, T> PageResult<T> of(Page<S> page, Function<S, T> mapper) {
+        List<T> items = page.getContent().stream().map(mapper).collect(Collectors.toList());
+        return new PageResult<>(items, page.getNumber(), page.getSize(), page.getTotalElements());
+    }
+}
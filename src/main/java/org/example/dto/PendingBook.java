@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Aszinkron (write-behind) könyvfelvitel állapota; a GET /api/books/pending/{id} adja vissza
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingBook {
+
+    public enum State { QUEUED, CREATED, REJECTED, FAILED }
+
+    private String id;
+    private State state;
+    // A létrehozott könyv azonosítója (CREATED állapotban)
+    private Long bookId;
+    private String error;
+    private Instant acceptedAt;
+}
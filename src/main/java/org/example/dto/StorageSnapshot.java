@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Egy elkészült adatbázis pillanatkép (tömörített H2 mentés)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageSnapshot {
+    private String file;
+    private long sizeBytes;
+    private long durationMillis;
+}
@@ -0,0 +1,39 @@
+package org.example.event;
+
+import lombok.Value;
+import org.example.dto.BookSummary;
+
+// Véglegesített (commitolt) változás a katalógusban
+@Value
+public class CatalogChangeEvent {
+
+    public enum EntityType { BOOK, AUTHOR }
+
+    public enum Operation { CREATE, UPDATE, DELETE }
+
+    EntityType entityType;
+    Operation operation;
+    Long entityId;
+    // Az entitás verziója a változás után (törlésnél az utolsó ismert verzió; null, ha nem ismert)
+    Long version;
+    // Könyv esetén a változás utáni állapot (törlésnél null)
+    BookSummary book;
+    // Szerző esetén a változás utáni név (törlésnél null)
+    String authorName;
+
+    public static CatalogChangeEvent bookSaved(Operation operation, BookSummary book, Long version) {
+        return new CatalogChangeEvent(EntityType.BOOK, operation, book.getId(), version, book, null);
+    }
+
+    public static CatalogChangeEvent bookDeleted(Long id, Long version) {
+        return new CatalogChangeEvent(EntityType.BOOK, Operation.DELETE, id, version, null, null);
+    }
+
+    public static CatalogChangeEvent authorSaved(Operation operation, Long id, String name, Long version) {
+        return new CatalogChangeEvent(EntityType.AUTHOR, operation, id, version, null, name);
+    }
+
+    public static CatalogChangeEvent authorDeleted(Long id, Long version) {
+        return new CatalogChangeEvent(EntityType.AUTHOR, Operation.DELETE, id, version, null, null);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void publish(Object event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    // Olyan írásokhoz (pl. tömeges JPQL), amelyek megkerülik a Hibernate eseményeket:
+    // az eseményt csak sikeres commit után küldjük ki
+    public void publishAfterCommit(Object event) {
+        runAfterCommit(() -> publish(event));
+    }
+
+    // Tranzakción kívül azonnal fut, egyébként csak sikeres commit után (pl. cache ürítés)
+    public void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
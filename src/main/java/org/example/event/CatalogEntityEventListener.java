@@ -0,0 +1,93 @@
+package org.example.event;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.BookSummary;
+import org.example.event.CatalogChangeEvent.Operation;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+// A Book és Author entitások commitolt változásait CatalogChangeEvent-ként továbbítja
+@Component
+@RequiredArgsConstructor
+public class CatalogEntityEventListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CatalogChangePublisher publisher;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        saved(event.getEntity(), Operation.CREATE);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        saved(event.getEntity(), Operation.UPDATE);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Book) {
+            Book book = (Book) entity;
+            publisher.publish(CatalogChangeEvent.bookDeleted(book.getId(), book.getVersion()));
+        } else if (entity instanceof Author) {
+            Author author = (Author) entity;
+            publisher.publish(CatalogChangeEvent.authorDeleted(author.getId(), author.getVersion()));
+        }
+    }
+
+    private void saved(Object entity, Operation operation) {
+        if (entity instanceof Book) {
+            Book book = (Book) entity;
+            publisher.publish(CatalogChangeEvent.bookSaved(operation, BookSummary.from(book), book.getVersion()));
+        } else if (entity instanceof Author) {
+            Author author = (Author) entity;
+            publisher.publish(CatalogChangeEvent.authorSaved(operation, author.getId(), author.getName(),
+                    author.getVersion()));
+        }
+    }
+
+    // Sikertelen commit esetén nincs mit továbbítani
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return Book.class.isAssignableFrom(type) || Author.class.isAssignableFrom(type);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.event;
+
+import lombok.Value;
+
+// A teljes katalógus törölve lett egy tömeges utasítással (a Hibernate események nélkül)
+@Value
+public class CatalogResetEvent {
+    long timestamp;
+}
@@ -0,0 +1,44 @@
+package org.example.event;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Katalógus szintű módosítás számláló: minden véglegesített könyv- vagy szerzőváltozás növeli.
+// Az indulási időt is tartalmazó ETag újraindítás után sem egyezhet egy korábbival.
+@Component
+public class CatalogVersion {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong counter = new AtomicLong();
+    private volatile long lastModified = startedAt;
+
+    @EventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        bump();
+    }
+
+    @EventListener
+    public void onCatalogReset(CatalogResetEvent event) {
+        bump();
+    }
+
+    private void bump() {
+        counter.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    public long current() {
+        return counter.get();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    // Erős ETag a teljes katalógust leíró válaszokhoz (pl. GET /api/books)
+    public String etag(String resource) {
+        return "\"" + resource + "-" + Long.toString(startedAt, 36) + "-" + counter.get() + "\"";
+    }
+}
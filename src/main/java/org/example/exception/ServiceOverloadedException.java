@@ -0,0 +1,16 @@
+package org.example.exception;
+
+// Átmeneti túlterhelés (pl. megtelt írási sor): 503, a kliens Retry-After múlva próbálkozhat újra
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
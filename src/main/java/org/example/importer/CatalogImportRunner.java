@@ -0,0 +1,78 @@
+package org.example.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+// Parancssori import: --library.import.file=katalogus.csv (a formátum a kiterjesztésből, vagy --library.import.format).
+// Az induló adatok betöltése (DataLoader) után fut, mert ugyanabban a sorban várakozik.
+// Minden véglegesített chunk után <fájl>.checkpoint rögzíti a feldolgozott rekordok számát;
+// megszakadt futás után ugyanazzal a paranccsal onnan folytatódik.
+@Component
+@ConditionalOnProperty("library.import.file")
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class CatalogImportRunner implements CommandLineRunner {
+
+    private final CatalogImportService catalogImportService;
+    private final Path file;
+    private final String format;
+
+    public CatalogImportRunner(CatalogImportService catalogImportService,
+                               @Value("${library.import.file}") String file,
+                               @Value("${library.import.format:}") String format) {
+        this.catalogImportService = catalogImportService;
+        this.file = Paths.get(file);
+        this.format = format;
+    }
+
+    @Override
+    public void run(String... args) throws IOException {
+        ImportFormat importFormat = format.isEmpty()
+                ? ImportFormat.fromFileName(file.getFileName().toString())
+                : ImportFormat.parse(format);
+        Path checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        long skip = readCheckpoint(checkpointFile);
+        if (skip > 0) {
+            log.info("Import folytatása a checkpointból: {} rekord már feldolgozva", skip);
+        }
+
+        ImportJob job = catalogImportService.importFile(file, importFormat, skip,
+                committed -> writeCheckpoint(checkpointFile, committed));
+        if (job.getState() == ImportJob.State.COMPLETED) {
+            Files.deleteIfExists(checkpointFile);
+        } else {
+            log.error("Az import nem fejeződött be ({}); újraindításkor a {}. rekordtól folytatódik",
+                    job.getError(), readCheckpoint(checkpointFile) + 1);
+        }
+    }
+
+    private static long readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        return Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim());
+    }
+
+    // Ideiglenes fájlba írjuk és átnevezzük, így összeomláskor sem marad félig írt checkpoint
+    private static void writeCheckpoint(Path checkpointFile, long committed) {
+        try {
+            Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.write(tmp, Long.toString(committed).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("A checkpoint nem írható: {}", checkpointFile, e);
+        }
+    }
+}
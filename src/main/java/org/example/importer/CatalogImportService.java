@@ -0,0 +1,250 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BulkAuthorRequest;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkItemResult;
+import org.example.dto.BulkResult;
+import org.example.model.Author;
+import org.example.repository.AuthorRepository;
+import org.example.service.BulkIngestionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
+
+// Katalógus import CSV vagy NDJSON folyamból. A rekordokat chunkonként dolgozza fel:
+// a szerzőneveket memóriabeli térképpel és egy IN lekérdezéssel oldja fel, a könyveket a
+// BulkIngestionService írja (ISBN ellenőrzés tömegesen, JDBC batch), chunkonként külön tranzakcióban.
+@Service
+@Slf4j
+public class CatalogImportService {
+
+    // A szerzőnevek feloldásakor használt IN listák mérete
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    // Ennyi befejezett futást tartunk meg lekérdezhetőnek
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    private final BulkIngestionService bulkIngestionService;
+    private final AuthorRepository authorRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int authorCacheSize;
+
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+    // Az importok egymás után futnak, így nem versenyeznek a szerzők létrehozásáért
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogImportService(BulkIngestionService bulkIngestionService,
+                                AuthorRepository authorRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${library.import.chunk-size:5000}") int chunkSize,
+                                @Value("${library.import.author-cache-size:200000}") int authorCacheSize,
+                                @Value("${library.bulk.max-items:10000}") int maxBulkItems) {
+        this.bulkIngestionService = bulkIngestionService;
+        this.authorRepository = authorRepository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, maxBulkItems));
+        this.authorCacheSize = authorCacheSize;
+    }
+
+    // Háttérben futó import egy már lemezre mentett fájlból; a fájlt a végén törli
+    public ImportJob submit(Path spoolFile, ImportFormat format, long skip) {
+        ImportJob job = register(new ImportJob(format, skip));
+        enqueue(job, new FileSystemResource(spoolFile), () -> { }, committed -> { })
+                .whenComplete((result, error) -> deleteQuietly(spoolFile));
+        return job;
+    }
+
+    // Háttérben futó import tetszőleges forrásból (pl. induló adatok); a prepare lépés ugyanazon a szálon,
+    // közvetlenül az import előtt fut, így más importokkal sem keveredik
+    public CompletableFuture<ImportJob> submit(InputStreamSource source, ImportFormat format, Runnable prepare) {
+        return enqueue(register(new ImportJob(format, 0)), source, prepare, committed -> { });
+    }
+
+    // Import a sorban a többi után, a hívó megvárja; a checkpoint minden véglegesített chunk után
+    // megkapja a feldolgozott rekordok számát
+    public ImportJob importFile(Path file, ImportFormat format, long skip, LongConsumer checkpoint) {
+        return enqueue(register(new ImportJob(format, skip)), new FileSystemResource(file), () -> { }, checkpoint).join();
+    }
+
+    public Optional<ImportJob> findJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void run(ImportJob job, InputStream in, LongConsumer checkpoint) {
+        job.started();
+        log.info("Katalógus import indul: {} ({}, {} rekord átugrva)", job.getId(), job.getFormat(), job.getSkipped());
+        Map<String, Long> authorIds = new LinkedHashMap<String, Long>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > authorCacheSize;
+            }
+        };
+        try (CatalogRecordReader reader = open(job.getFormat(), in)) {
+            for (long i = 0; i < job.getSkipped(); i++) {
+                if (reader.read() == null) {
+                    break;
+                }
+            }
+            List<CatalogRecord> chunk = new ArrayList<>(chunkSize);
+            CatalogRecord record;
+            while ((record = reader.read()) != null) {
+                job.getRecordsRead().incrementAndGet();
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk, authorIds);
+                    checkpoint.accept(job.getSkipped() + job.getCommittedRecords().get());
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk, authorIds);
+                checkpoint.accept(job.getSkipped() + job.getCommittedRecords().get());
+            }
+            job.completed();
+            log.info("Katalógus import kész: {} — {} könyv, {} szerző, {} elutasítva, {} rekord/s",
+                    job.getId(), job.getBooksCreated(), job.getAuthorsCreated(), job.getRejected(), job.getRecordsPerSecond());
+        } catch (Exception e) {
+            job.failed(e.getMessage());
+            log.error("Katalógus import megszakadt: {} a(z) {}. rekord után", job.getId(),
+                    job.getSkipped() + job.getCommittedRecords().get(), e);
+        }
+    }
+
+    private CompletableFuture<ImportJob> enqueue(ImportJob job, InputStreamSource source, Runnable prepare,
+                                                 LongConsumer checkpoint) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                prepare.run();
+                try (InputStream in = source.getInputStream()) {
+                    run(job, in, checkpoint);
+                }
+            } catch (IOException | RuntimeException e) {
+                job.failed(e.getMessage());
+                log.error("Katalógus import nem indult el: {}", job.getId(), e);
+            }
+            return job;
+        }, executor);
+    }
+
+    private CatalogRecordReader open(ImportFormat format, InputStream in) throws IOException {
+        return format == ImportFormat.CSV ? new CsvRecordReader(in) : new NdjsonRecordReader(objectMapper, in);
+    }
+
+    private void writeChunk(ImportJob job, List<CatalogRecord> chunk, Map<String, Long> authorIds) {
+        long firstRecord = job.getSkipped() + job.getCommittedRecords().get() + 1;
+        resolveAuthors(job, chunk, authorIds);
+
+        List<BulkBookRequest> books = new ArrayList<>(chunk.size());
+        List<Long> recordNumbers = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CatalogRecord record = chunk.get(i);
+            if (record.getTitle() == null) {
+                // Cím nélküli sor csak szerzőt vesz fel (ezt resolveAuthors már elintézte)
+                if (record.getAuthor() == null) {
+                    job.reject(firstRecord + i, "Title or author is required");
+                }
+                continue;
+            }
+            if (record.getAuthor() == null) {
+                job.reject(firstRecord + i, "Author is required");
+                continue;
+            }
+            books.add(new BulkBookRequest(record.getTitle(), record.getIsbn(), authorIds.get(record.getAuthor())));
+            recordNumbers.add(firstRecord + i);
+        }
+
+        if (!books.isEmpty()) {
+            BulkResult result = bulkIngestionService.createBooks(books);
+            job.getBooksCreated().addAndGet(result.getCreated());
+            for (BulkItemResult item : result.getItems()) {
+                if (item.getStatus() == BulkItemResult.Status.REJECTED) {
+                    job.reject(recordNumbers.get(item.getIndex()), item.getError());
+                }
+            }
+        }
+        job.getCommittedRecords().addAndGet(chunk.size());
+    }
+
+    // A chunk szerzőit előbb a térképből, aztán egy IN lekérdezéssel keressük; a hiányzókat egy bulk hívás hozza létre
+    private void resolveAuthors(ImportJob job, List<CatalogRecord> chunk, Map<String, Long> authorIds) {
+        Set<String> unknown = new LinkedHashSet<>();
+        for (CatalogRecord record : chunk) {
+            if (record.getAuthor() != null && authorIds.get(record.getAuthor()) == null) {
+                unknown.add(record.getAuthor());
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+
+        List<String> names = new ArrayList<>(unknown);
+        for (int from = 0; from < names.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Author> found = authorRepository.findByNameIn(names.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, names.size())));
+            for (Author author : found) {
+                // Azonos nevű szerzők közül a legrégebbit használjuk
+                authorIds.merge(author.getName(), author.getId(), Math::min);
+                unknown.remove(author.getName());
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+
+        List<BulkAuthorRequest> requests = new ArrayList<>(unknown.size());
+        unknown.forEach(name -> requests.add(new BulkAuthorRequest(name)));
+        BulkResult result = bulkIngestionService.createAuthors(requests);
+        job.getAuthorsCreated().addAndGet(result.getCreated());
+        for (BulkItemResult item : result.getItems()) {
+            if (item.getStatus() == BulkItemResult.Status.CREATED) {
+                authorIds.put(requests.get(item.getIndex()).getName(), item.getId());
+            }
+        }
+    }
+
+    private ImportJob register(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            Iterator<ImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_FINISHED_JOBS && oldest.hasNext()) {
+                ImportJob candidate = oldest.next();
+                if (candidate.getState() == ImportJob.State.COMPLETED || candidate.getState() == ImportJob.State.FAILED) {
+                    oldest.remove();
+                }
+            }
+        }
+        return job;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Az import ideiglenes fájlja nem törölhető: {}", file, e);
+        }
+    }
+}
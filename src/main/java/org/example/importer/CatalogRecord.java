@@ -0,0 +1,17 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Az import egy sora: könyv a szerző nevével, vagy cím nélkül csak egy szerző
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CatalogRecord {
+    private String title;
+    private String isbn;
+    private String author;
+}
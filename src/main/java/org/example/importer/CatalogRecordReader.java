@@ -0,0 +1,11 @@
+package org.example.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Rekordonként olvassa a bemenetet; a teljes fájl soha nincs a memóriában
+public interface CatalogRecordReader extends Closeable {
+
+    // A következő rekord, vagy null a bemenet végén
+    CatalogRecord read() throws IOException;
+}
@@ -0,0 +1,122 @@
+package org.example.importer;
+
+import org.example.exception.InvalidRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// RFC 4180 szerinti CSV fejléc sorral (title, isbn, author; sorrend tetszőleges, más oszlopok kimaradnak).
+// Idézőjeles mezőben vessző, sortörés és "" (escape-elt idézőjel) is lehet.
+public class CsvRecordReader implements CatalogRecordReader {
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private final int titleColumn;
+    private final int isbnColumn;
+    private final int authorColumn;
+    private boolean endOfInput;
+
+    public CsvRecordReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> header = readRow();
+        if (header == null) {
+            throw new InvalidRequestException("CSV input is empty");
+        }
+        // Excel UTF-8 exportjainak BOM jele
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        titleColumn = column(header, "title");
+        isbnColumn = column(header, "isbn");
+        authorColumn = column(header, "author");
+        if (titleColumn < 0 && authorColumn < 0) {
+            throw new InvalidRequestException("CSV header must contain a title or an author column");
+        }
+    }
+
+    @Override
+    public CatalogRecord read() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+        return new CatalogRecord(value(row, titleColumn), value(row, isbnColumn), value(row, authorColumn));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRow() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        boolean quoted = false;
+        boolean any = false;
+        field.setLength(0);
+        while (true) {
+            int c = reader.read();
+            if (c < 0) {
+                endOfInput = true;
+                if (!any) {
+                    return null;
+                }
+                row.add(field.toString());
+                return row;
+            }
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                row.add(field.toString());
+                return row;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String value(List<String> row, int column) {
+        if (column < 0 || column >= row.size()) {
+            return null;
+        }
+        String value = row.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
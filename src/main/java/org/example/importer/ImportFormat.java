@@ -0,0 +1,46 @@
+package org.example.importer;
+
+import org.example.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+// A katalógus import támogatott bemeneti formátumai
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static ImportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported import format: " + value);
+        }
+    }
+
+    // Formátum a fájl kiterjesztéséből (CLI import)
+    public static ImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new InvalidRequestException("Cannot determine import format from file name: " + fileName);
+    }
+
+    // Formátum a kérés Content-Type fejlécéből (POST /api/import)
+    public static ImportFormat fromContentType(MediaType contentType) {
+        if (contentType != null) {
+            if ("csv".equalsIgnoreCase(contentType.getSubtype())) {
+                return CSV;
+            }
+            if (MediaType.APPLICATION_NDJSON.includes(contentType) || "x-ndjson".equalsIgnoreCase(contentType.getSubtype())) {
+                return NDJSON;
+            }
+        }
+        throw new InvalidRequestException("Unsupported import content type: " + contentType
+                + " (use text/csv or application/x-ndjson, or the format parameter)");
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.importer;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Egy import futás állapota; az importáló szál írja, a GET /api/import/{id} olvassa
+@Getter
+public class ImportJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    // Ennyi elutasítás okát őrizzük meg mintaként
+    private static final int MAX_REJECTION_SAMPLES = 100;
+
+    private final String id = UUID.randomUUID().toString();
+    private final ImportFormat format;
+    // Ennyi rekordot ugrottunk át a bemenet elején (folytatás checkpointból)
+    private final long skipped;
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private final AtomicLong recordsRead = new AtomicLong();
+    // Véglegesített chunkokban feldolgozott rekordok: újraindításkor skipped + committedRecords-tól folytatható
+    private final AtomicLong committedRecords = new AtomicLong();
+    private final AtomicLong booksCreated = new AtomicLong();
+    private final AtomicLong authorsCreated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<String> rejections = new ArrayList<>();
+
+    public ImportJob(ImportFormat format, long skipped) {
+        this.format = format;
+        this.skipped = skipped;
+    }
+
+    public long getRecordsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return committedRecords.get() * 1000 / millis;
+    }
+
+    public List<String> getRejections() {
+        synchronized (rejections) {
+            return new ArrayList<>(rejections);
+        }
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    void completed() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    void failed(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+
+    // A rekord sorszáma a teljes bemenetben értendő (1-től, az átugrottakat is számolva)
+    void reject(long recordNumber, String reason) {
+        rejected.incrementAndGet();
+        synchronized (rejections) {
+            if (rejections.size() < MAX_REJECTION_SAMPLES) {
+                rejections.add("record " + recordNumber + ": " + reason);
+            }
+        }
+    }
+}
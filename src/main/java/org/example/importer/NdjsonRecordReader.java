@@ -0,0 +1,27 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Soronként egy JSON objektum: {"title": ..., "isbn": ..., "author": ...}
+public class NdjsonRecordReader implements CatalogRecordReader {
+
+    private final MappingIterator<CatalogRecord> records;
+
+    public NdjsonRecordReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+        this.records = objectMapper.readerFor(CatalogRecord.class).readValues(in);
+    }
+
+    @Override
+    public CatalogRecord read() throws IOException {
+        return records.hasNextValue() ? records.nextValue() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Egy lezárt hatókör SQL statisztikája metrikaként: library.sql.statements, library.sql.rows (hatókörönkénti
+// eloszlás) és library.sql.time; a scope címke "request" (URI minta szerint) vagy "service" (osztály.metódus)
+public class SqlMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String scope, String name, StatementCounter.Scope stats) {
+        DistributionSummary.builder("library.sql.statements")
+                .tag("scope", scope)
+                .tag("name", name)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("library.sql.rows")
+                .tag("scope", scope)
+                .tag("name", name)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("library.sql.time")
+                .tag("scope", scope)
+                .tag("name", name)
+                .register(meterRegistry)
+                .record(stats.getTime());
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Szálhoz kötött SQL statisztika. A nyitott hatókörök (HTTP kérés, szolgáltatás metódus, teszt) egymásba
+// ágyazódnak, és mindegyik számolja a szálon végrehajtott utasításokat, a beolvasott/módosított sorokat és
+// az adatbázisban töltött időt. Az adatokat a StatementCountingDataSource szolgáltatja.
+public final class StatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static Scope open(String name) {
+        return open(name, false);
+    }
+
+    // captureSql: az utasítások szövegét is megőrzi (tesztekben: a keret túllépésekor látszik, mi futott)
+    public static Scope open(String name, boolean captureSql) {
+        Scope scope = new Scope(name, CURRENT.get(), captureSql);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void statementExecuted(String sql, long rows, long nanos) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.rows += rows;
+            scope.nanos += nanos;
+            if (scope.sql != null) {
+                scope.sql.add(sql);
+            }
+        }
+    }
+
+    static void rowRead() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final String name;
+        private final Scope parent;
+        private final List<String> sql;
+        private int statements;
+        private long rows;
+        private long nanos;
+
+        private Scope(String name, Scope parent, boolean captureSql) {
+            this.name = name;
+            this.parent = parent;
+            this.sql = captureSql ? new ArrayList<>() : null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public Duration getTime() {
+            return Duration.ofNanos(nanos);
+        }
+
+        public List<String> getSql() {
+            return sql != null ? Collections.unmodifiableList(sql) : List.of();
+        }
+
+        // A hatókörök try-with-resources blokkokban, fordított sorrendben záródnak
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.jdbc;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// Szolgáltatás metódusonkénti SQL statisztika. A tranzakció kezelés körül fut, így a commitkori flush
+// utasításai is a metódushoz számítanak; a beágyazott szolgáltatáshívások a hívóba is beleszámítanak.
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementCountingAspect {
+
+    private final SqlMetrics sqlMetrics;
+
+    public StatementCountingAspect(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Around("within(org.example.service..*) && @within(org.springframework.stereotype.Service)")
+    public Object count(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        StatementCounter.Scope scope = StatementCounter.open(name);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            scope.close();
+            sqlMetrics.record("service", name, scope);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// A pool elé tett adatforrás, amely a kapcsolatokat, utasításokat és eredményhalmazokat JDK proxykkal
+// burkolja: minden végrehajtás (execute*) egy utasításnak számít (a JDBC batch is egynek, a sorai a módosított
+// sorok között), a lekérdezések sorait a ResultSet.next() hívások adják. A küszöbnél lassabb utasítások
+// WARN szinten naplózódnak. A számlálás a StatementCounter nyitott hatóköreibe kerül.
+@Slf4j
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final long slowThresholdNanos;
+
+    public StatementCountingDataSource(DataSource target, Duration slowThreshold) {
+        super(target);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementCountingDataSource.invoke(target, method, args);
+            if (result instanceof Statement) {
+                // prepareStatement/prepareCall: az SQL már itt ismert; createStatement: a végrehajtáskor
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = StatementCountingDataSource.invoke(target, method, args);
+                return "getResultSet".equals(name) && result != null ? wrap((ResultSet) result) : result;
+            }
+
+            String statementSql = sql != null ? sql
+                    : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = StatementCountingDataSource.invoke(target, method, args);
+                return result instanceof ResultSet ? wrap((ResultSet) result) : result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= slowThresholdNanos) {
+                    log.warn("Lassú SQL utasítás ({} ms): {}", elapsed / 1_000_000, statementSql);
+                }
+                StatementCounter.statementExecuted(statementSql, affectedRows(result), elapsed);
+            }
+        }
+
+        // executeUpdate: a módosított sorok száma, executeBatch: a tételek összege (a lekérdezéseknél a next() hívások)
+        private long affectedRows(Object result) {
+            long rows = 0;
+            if (result instanceof Integer || result instanceof Long) {
+                rows = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(0, count);
+                }
+            }
+            return Math.max(0, rows);
+        }
+
+        private ResultSet wrap(ResultSet resultSet) {
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                Object result = StatementCountingDataSource.invoke(resultSet, method, args);
+                if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                    StatementCounter.rowRead();
+                }
+                return result;
+            });
+        }
+    }
+}
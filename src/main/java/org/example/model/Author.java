@@ -4,25 +4,54 @@ import javax.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "author")  // egyes szám
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
 @Data
 @EqualsAndHashCode(exclude = "books")
 @ToString(exclude = "books")
 public class Author {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled szekvencia: a Hibernate így tud JDBC batch-ben beszúrni (IDENTITY mellett nem)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "author_seq", allocationSize = 50)
     private Long id;
 
+    // Optimista zárolás; a feltételes GET (ETag) is ebből számol
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String name;
 
+    // Denormalizált könyvszám: csak az AuthorBookCounter célzott UPDATE-je módosítja (a verzió nélkül);
+    // az entitás írásai nem érintik, így egy elavult példány sem írja felül, és a kliens sem írhatja
+    @Column(name = "book_count", nullable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int bookCount;
+
+    // Nincs gyűjtemény cache: az inverz oldalt a könyv írásai nem frissítik, a cache-elt lista elavulna
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    @JsonBackReference
+    // A szerző JSON-ja nem tartalmazza a könyveit (a könyv JSON-ja viszont a szerzőt igen)
+    @JsonIgnore
     private List<Book> books = new ArrayList<>();
-}
\ No newline at end of file
+
+    // Leválasztott másolat a könyvek nélkül (a books lusta, a másolatban üres)
+    public Author detachedCopy() {
+        Author copy = new Author();
+        copy.setId(getId());
+        copy.setVersion(getVersion());
+        copy.setName(getName());
+        copy.setBookCount(getBookCount());
+        return copy;
+    }
+}
@@ -4,18 +4,27 @@ import javax.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "book")  // egyes szám
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
 @Data
 @EqualsAndHashCode(exclude = "author")
 @ToString(exclude = "author")
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled szekvencia: a Hibernate így tud JDBC batch-ben beszúrni (IDENTITY mellett nem)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
+    // Optimista zárolás; a feltételes GET (ETag) is ebből számol
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String title;
 
@@ -24,6 +33,16 @@ public class Book {
 
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "author_id")
-    @JsonManagedReference
     private Author author;
-}
\ No newline at end of file
+
+    // Leválasztott másolat a szerzővel együtt: nem kötődik persistence contexthez, más szálnak átadható
+    public Book detachedCopy() {
+        Book copy = new Book();
+        copy.setId(getId());
+        copy.setVersion(getVersion());
+        copy.setTitle(getTitle());
+        copy.setIsbn(getIsbn());
+        copy.setAuthor(getAuthor() != null ? getAuthor().detachedCopy() : null);
+        return copy;
+    }
+}
@@ -1,7 +1,46 @@
 package org.example.repository;
 
+import org.example.dto.AuthorSummary;
+import org.example.dto.AuthorVersion;
+import org.example.dto.BookSummary;
 import org.example.model.Author;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface AuthorRepository extends JpaRepository<Author, Long> {
-}
\ No newline at end of file
+
+    // A feltételes GET ebből számolja az ETag-et, entitás betöltése nélkül
+    @Query("SELECT a.version FROM Author a WHERE a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Az összes szerző verziója: ebből dől el, mely JSON töredékek jók még a cache-ben
+    @Query("SELECT new org.example.dto.AuthorVersion(a.id, a.version) FROM Author a ORDER BY a.id")
+    List<AuthorVersion> findAllVersions();
+
+    // Import: a fájlban szereplő szerzőnevek feloldása egy lekérdezéssel
+    List<Author> findByNameIn(Collection<String> names);
+
+    // Szerzők a könyvszámukkal, a book tábla érintése nélkül
+    @Query(value = "SELECT new org.example.dto.AuthorSummary(a.id, a.name, a.bookCount) FROM Author a",
+            countQuery = "SELECT COUNT(a) FROM Author a")
+    Page<AuthorSummary> findSummaries(Pageable pageable);
+
+    // Több szerző könyvei egyetlen IN lekérdezéssel; könyv nélküli szerzőnél a könyv mezők null-ok
+    @Query("SELECT new org.example.dto.BookSummary(b.id, b.title, b.isbn, a.id, a.name) "
+            + "FROM Author a LEFT JOIN a.books b WHERE a.id IN :ids ORDER BY a.id, b.id")
+    List<BookSummary> findBookSummariesByAuthorIdIn(@Param("ids") Collection<Long> ids);
+
+    // Könyvszám karbantartás célzott UPDATE-tel: a verzió nem változik, és a friss sorértékből számol,
+    // így párhuzamos írásoknál sem vész el változás
+    @Modifying
+    @Query("UPDATE Author a SET a.bookCount = a.bookCount + :delta WHERE a.id IN :ids")
+    int adjustBookCounts(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+}
@@ -1,46 +1,122 @@
 package org.example.repository;
 
+import org.example.dto.BookSummary;
+import org.example.dto.BookVersion;
 import org.example.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+
+    // A listázó lekérdezések a szerzőt is ugyanabban az utasításban töltik be (nincs N+1)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Book> findAll();
+
+    // Dinamikus, több feltételes keresés (BookSpecifications)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Book> findAll(Specification<Book> spec, Pageable pageable);
 
     // Könyv keresése cím alapján
+    @EntityGraph(attributePaths = "author")
     List<Book> findByTitle(String title);
 
     // Könyv keresése cím alapján (részleges egyezés, kis/nagybetű független)
+    @EntityGraph(attributePaths = "author")
     List<Book> findByTitleContainingIgnoreCase(String title);
 
-    // Könyv keresése ISBN alapján
+    // Könyv keresése ISBN alapján (lekérdezés cache-ből, ha lehet)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Book> findByIsbn(String isbn);
 
-    // Könyvek keresése szerző alapján
+    // ISBN keresés írásmódtól függetlenül (kötőjelek és szóközök nélkül); táblabejárás, csak amíg az ISBN index épül
+    @Query(value = "SELECT * FROM book WHERE UPPER(REPLACE(REPLACE(isbn, '-', ''), ' ', '')) IN (:spellings)",
+            nativeQuery = true)
+    List<Book> findByCompactIsbnIn(@Param("spellings") Collection<String> spellings);
+
+    // Könyvek keresése szerző alapján (lekérdezés cache-ből, ha lehet)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @EntityGraph(attributePaths = "author")
     List<Book> findByAuthorId(Long authorId);
 
     // Könyvek keresése szerző neve alapján
+    @EntityGraph(attributePaths = "author")
     List<Book> findByAuthorName(String authorName);
 
     // Könyvek keresése szerző neve alapján (részleges egyezés)
+    @EntityGraph(attributePaths = "author")
     List<Book> findByAuthorNameContainingIgnoreCase(String authorName);
 
     // Összes könyv egy adott szerzőtől (custom query)
-    @Query("SELECT b FROM Book b WHERE b.author.name = :authorName")
+    @Query("SELECT b FROM Book b JOIN FETCH b.author a WHERE a.name = :authorName")
     List<Book> findBooksByAuthorName(@Param("authorName") String authorName);
 
     // Könyvek keresése cím vagy szerző neve alapján
-    @Query("SELECT b FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(b.author.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author a WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(a.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Book> findByTitleOrAuthorNameContaining(@Param("keyword") String keyword);
 
     // Ellenőrzi, hogy létezik-e könyv az adott ISBN-nel
     boolean existsByIsbn(String isbn);
 
+    // A megadott ISBN-ek közül a már foglaltak, egyetlen lekérdezéssel
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
     // Megszámolja egy szerző könyveinek számát
     long countByAuthorId(Long authorId);
-}
\ No newline at end of file
+
+    // Keyset lapozás: az adott azonosító utáni könyvek azonosító szerint rendezve
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author WHERE b.id > :after ORDER BY b.id")
+    List<Book> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    // Teljes katalógus folyamként (a hívónak tranzakción belül kell bezárnia)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author ORDER BY b.id")
+    Stream<Book> streamAll();
+
+    // Lapos nézetek a listázó végpontokhoz: entitás-hidratálás nélkül, egy utasítással
+    @Query("SELECT new org.example.dto.BookSummary(b.id, b.title, b.isbn, a.id, a.name) "
+            + "FROM Book b LEFT JOIN b.author a ORDER BY b.id")
+    List<BookSummary> findAllSummaries();
+
+    @Query("SELECT new org.example.dto.BookSummary(b.id, b.title, b.isbn, a.id, a.name) "
+            + "FROM Book b LEFT JOIN b.author a WHERE b.id > :after ORDER BY b.id")
+    List<BookSummary> findSummaryPageAfter(@Param("after") Long after, Pageable pageable);
+
+    // A teljes katalógus lapos nézetben, egyetlen lekérdezéssel (indexépítéshez)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.example.dto.BookSummary(b.id, b.title, b.isbn, a.id, a.name) "
+            + "FROM Book b LEFT JOIN b.author a ORDER BY b.id")
+    Stream<BookSummary> streamAllSummaries();
+
+    // A feltételes GET ebből számolja az ETag-et, entitás betöltése nélkül
+    @Query("SELECT new org.example.dto.BookVersion(b.id, b.version, a.version) FROM Book b LEFT JOIN b.author a WHERE b.id = :id")
+    Optional<BookVersion> findVersionById(@Param("id") Long id);
+
+    // Az összes könyv verziója: ebből dől el, mely JSON töredékek jók még a cache-ben
+    @Query("SELECT new org.example.dto.BookVersion(b.id, b.version, a.version) FROM Book b LEFT JOIN b.author a ORDER BY b.id")
+    List<BookVersion> findAllVersions();
+
+    // A cache-ből hiányzó könyvek betöltése szerzővel együtt, egy utasításban
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author WHERE b.id IN :ids")
+    List<Book> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+}
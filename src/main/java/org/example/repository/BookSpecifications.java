@@ -0,0 +1,89 @@
+package org.example.repository;
+
+import org.example.dto.BookQuery;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.util.Locale;
+
+// A könyvkeresés feltételei. Minden érték paraméterként kötődik, így az SQL alakja
+// csak attól függ, mely feltételek vannak megadva (a terv- és utasítás-cache újrahasznosítható).
+public final class BookSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matching(BookQuery query) {
+        Specification<Book> spec = Specification.where(null);
+        if (hasText(query.getTitle())) {
+            spec = spec.and(titleStartsWith(query.getTitle()));
+        }
+        if (query.getAuthorId() != null) {
+            spec = spec.and(authorIdEquals(query.getAuthorId()));
+        }
+        if (hasText(query.getAuthorName())) {
+            spec = spec.and(authorNameStartsWith(query.getAuthorName()));
+        }
+        if (hasText(query.getIsbn())) {
+            spec = spec.and(isbnStartsWith(query.getIsbn()));
+        }
+        return spec;
+    }
+
+    public static Specification<Book> titleStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), likePrefix(prefix), LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> authorIdEquals(Long authorId) {
+        return (root, query, cb) -> cb.equal(root.get("author").get("id"), authorId);
+    }
+
+    public static Specification<Book> authorNameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(cb.lower(author(root, query).get("name")), likePrefix(prefix), LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> isbnStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("isbn"), escape(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    // A szerzőt a lista lekérdezés úgyis betölti (entity graph): külön join helyett ugyanazt a fetch joint
+    // szűrjük, így az SQL-ben egyetlen author join marad. A számláló lekérdezés (count) nem fetch-elhet.
+    @SuppressWarnings("unchecked")
+    private static Join<Book, Author> author(Root<Book> root, CriteriaQuery<?> query) {
+        for (Fetch<Book, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals("author")) {
+                return (Join<Book, Author>) fetch;
+            }
+        }
+        for (Join<Book, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("author")) {
+                return (Join<Book, Author>) join;
+            }
+        }
+        if (Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType())) {
+            return root.join("author");
+        }
+        return (Join<Book, Author>) root.<Book, Author>fetch("author");
+    }
+
+    private static String likePrefix(String prefix) {
+        return escape(prefix.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    // A felhasználói bemenetben a LIKE helyettesítő karakterei szó szerint értendők
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,235 @@
+package org.example.search;
+
+import org.example.dto.BookSearchHit;
+import org.example.dto.BookSearchResult;
+import org.example.dto.BookSummary;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Memóriabeli invertált index a könyvcímek és szerzőnevek szavaira.
+// A szótár rendezett, így a prefix egyezés egy részfa bejárása.
+public class BookSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Pontszámok: a címben talált szó többet ér, a teljes egyezés többet, mint a prefix
+    private static final double TITLE_EXACT = 3.0;
+    private static final double TITLE_PREFIX = 2.0;
+    private static final double AUTHOR_EXACT = 2.0;
+    private static final double AUTHOR_PREFIX = 1.0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, BookSummary> books = new HashMap<>();
+    private final Map<Long, String> authorNames = new HashMap<>();
+    private final Map<Long, Set<Long>> booksByAuthor = new HashMap<>();
+    // szó -> könyvazonosítók (cím) illetve szerzőazonosítók (név)
+    private final NavigableMap<String, Set<Long>> titlePostings = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> authorPostings = new TreeMap<>();
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public void putBook(BookSummary book) {
+        lock.writeLock().lock();
+        try {
+            removeBookInternal(book.getId());
+            Long authorId = book.getAuthorId();
+            if (authorId != null && book.getAuthorName() != null) {
+                putAuthorInternal(authorId, book.getAuthorName());
+            }
+            // A szerző nevét az indexből pótoljuk, ha a könyv eseménye nem hozta magával
+            String authorName = authorId != null ? authorNames.get(authorId) : null;
+            books.put(book.getId(), new BookSummary(book.getId(), book.getTitle(), book.getIsbn(), authorId, authorName));
+            for (String token : new HashSet<>(tokenize(book.getTitle()))) {
+                titlePostings.computeIfAbsent(token, t -> new HashSet<>()).add(book.getId());
+            }
+            if (authorId != null) {
+                booksByAuthor.computeIfAbsent(authorId, a -> new HashSet<>()).add(book.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeBookInternal(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAuthor(Long authorId, String name) {
+        lock.writeLock().lock();
+        try {
+            putAuthorInternal(authorId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAuthor(Long authorId) {
+        lock.writeLock().lock();
+        try {
+            removeAuthorTokens(authorId);
+            authorNames.remove(authorId);
+            Set<Long> bookIds = booksByAuthor.remove(authorId);
+            if (bookIds != null) {
+                new ArrayList<>(bookIds).forEach(this::removeBookInternal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            books.clear();
+            authorNames.clear();
+            booksByAuthor.clear();
+            titlePostings.clear();
+            authorPostings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Minden keresőszónak illeszkednie kell a címre vagy a szerző nevére (ÉS kapcsolat)
+    public BookSearchResult search(String query, int page, int size) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new BookSearchResult(0, page, size, Collections.emptyList());
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<BookSearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new BookSearchHit(books.get(id), score)));
+            hits.sort(Comparator.comparingDouble(BookSearchHit::getScore).reversed()
+                    .thenComparing(hit -> hit.getBook().getTitle(), Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(hit -> hit.getBook().getId()));
+
+            int from = (int) Math.min((long) page * size, hits.size());
+            int to = Math.min(from + size, hits.size());
+            return new BookSearchResult(hits.size(), page, size, new ArrayList<>(hits.subList(from, to)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Set<Long>> entry : prefixRange(titlePostings, term).entrySet()) {
+            double score = entry.getKey().equals(term) ? TITLE_EXACT : TITLE_PREFIX;
+            for (Long bookId : entry.getValue()) {
+                scores.merge(bookId, score, Math::max);
+            }
+        }
+        for (Map.Entry<String, Set<Long>> entry : prefixRange(authorPostings, term).entrySet()) {
+            double score = entry.getKey().equals(term) ? AUTHOR_EXACT : AUTHOR_PREFIX;
+            for (Long authorId : entry.getValue()) {
+                for (Long bookId : booksByAuthor.getOrDefault(authorId, Collections.emptySet())) {
+                    scores.merge(bookId, score, Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static NavigableMap<String, Set<Long>> prefixRange(NavigableMap<String, Set<Long>> postings, String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void putAuthorInternal(Long authorId, String name) {
+        if (Objects.equals(authorNames.get(authorId), name)) {
+            return;
+        }
+        removeAuthorTokens(authorId);
+        authorNames.put(authorId, name);
+        for (String token : new HashSet<>(tokenize(name))) {
+            authorPostings.computeIfAbsent(token, t -> new HashSet<>()).add(authorId);
+        }
+        // A tárolt könyvnézetekben is frissítjük a szerző nevét
+        for (Long bookId : booksByAuthor.getOrDefault(authorId, Collections.emptySet())) {
+            BookSummary book = books.get(bookId);
+            books.put(bookId, new BookSummary(book.getId(), book.getTitle(), book.getIsbn(), authorId, name));
+        }
+    }
+
+    private void removeAuthorTokens(Long authorId) {
+        String name = authorNames.get(authorId);
+        for (String token : tokenize(name)) {
+            removePosting(authorPostings, token, authorId);
+        }
+    }
+
+    private void removeBookInternal(Long bookId) {
+        BookSummary old = books.remove(bookId);
+        if (old == null) {
+            return;
+        }
+        for (String token : tokenize(old.getTitle())) {
+            removePosting(titlePostings, token, bookId);
+        }
+        if (old.getAuthorId() != null) {
+            Set<Long> authorBooks = booksByAuthor.get(old.getAuthorId());
+            if (authorBooks != null) {
+                authorBooks.remove(bookId);
+                if (authorBooks.isEmpty()) {
+                    booksByAuthor.remove(old.getAuthorId());
+                }
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String token, Long id) {
+        Set<Long> ids = postings.get(token);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+}
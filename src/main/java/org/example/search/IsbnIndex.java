@@ -0,0 +1,301 @@
+package org.example.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Memóriabeli ISBN -> könyvazonosító index: nyílt címzésű hash tábla (lineáris próbálás),
+// előtte Bloom szűrő, így a nem létező ISBN-ek többségére a tábla érintése nélkül nemet mondunk.
+// A kulcs a normalizált ISBN (ellenőrzött ISBN-10 vagy ISBN-13, elválasztók nélkül, ISBN-13 alakban).
+public class IsbnIndex {
+
+    private static final int MIN_CAPACITY = 1024;
+    // A tábla legfeljebb félig telhet (a törölt helyeket is beleszámolva), utána újraépítjük
+    private static final int MAX_LOAD_PERCENT = 50;
+    // Bloom szűrő: táblahelyenként 8 bit (telített táblánál bejegyzésenként 16), 6 hash függvény
+    private static final int BLOOM_BITS_PER_SLOT = 8;
+    private static final int BLOOM_HASHES = 6;
+    // Törölt hely jelölése (identitás szerint hasonlítjuk)
+    private static final String TOMBSTONE = new String("");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private String[] keys;
+    private long[] bookIds;
+    private long[] bloom;
+    private int size;
+    private int used;
+    // Könyvazonosító -> kulcs: törlésnél és ISBN módosításnál a régi bejegyzés megtalálásához
+    private final Map<Long, String> keysByBookId = new HashMap<>();
+
+    public IsbnIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    // Csak érvényes (ellenőrző számjegyű) ISBN-10 és ISBN-13 kap kulcsot, ISBN-13 alakban; elválasztóként
+    // kötőjel és szóköz megengedett. Minden más (pl. belső azonosító) null: azt nem indexeljük.
+    public static String normalize(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        StringBuilder compact = new StringBuilder(13);
+        for (int i = 0; i < isbn.length() && compact.length() <= 13; i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                compact.append(c);
+            } else if (c == 'x' || c == 'X') {
+                compact.append('X');
+            } else if (c != '-' && c != ' ') {
+                return null;
+            }
+        }
+        if (compact.length() == 10 && isValidIsbn10(compact)) {
+            return toIsbn13(compact.substring(0, 9));
+        }
+        if (compact.length() == 13 && isValidIsbn13(compact)) {
+            return compact.toString();
+        }
+        return null;
+    }
+
+    // A normalizált kulcs elválasztók nélküli írásmódjai (ISBN-13, és 978-as előtagnál az ISBN-10 is)
+    public static List<String> spellings(String key) {
+        if (!key.startsWith("978")) {
+            return List.of(key);
+        }
+        String body = key.substring(3, 12);
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            sum += (10 - i) * (body.charAt(i) - '0');
+        }
+        int check = (11 - sum % 11) % 11;
+        return List.of(key, body + (check == 10 ? 'X' : (char) ('0' + check)));
+    }
+
+    // Súlyok 10..1, az X (10) csak az utolsó helyen állhat
+    private static boolean isValidIsbn10(CharSequence isbn) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = isbn.charAt(i);
+            if (c == 'X' && i < 9) {
+                return false;
+            }
+            sum += (10 - i) * (c == 'X' ? 10 : c - '0');
+        }
+        return sum % 11 == 0;
+    }
+
+    // Csak a könyvekre kiosztott 978 és 979 EAN előtag
+    private static boolean isValidIsbn13(CharSequence isbn) {
+        if (isbn.charAt(0) != '9' || isbn.charAt(1) != '7' || (isbn.charAt(2) != '8' && isbn.charAt(2) != '9')) {
+            return false;
+        }
+        for (int i = 0; i < 13; i++) {
+            if (isbn.charAt(i) == 'X') {
+                return false;
+            }
+        }
+        return ean13CheckDigit(isbn.subSequence(0, 12)) == isbn.charAt(12) - '0';
+    }
+
+    // 978-as előtag és új ellenőrző számjegy: a vonalkódolvasók ISBN-13-at (EAN) adnak
+    private static String toIsbn13(String isbn10Body) {
+        String body = "978" + isbn10Body;
+        return body + ean13CheckDigit(body);
+    }
+
+    private static int ean13CheckDigit(CharSequence body) {
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public void put(long bookId, String isbn) {
+        String key = normalize(isbn);
+        lock.writeLock().lock();
+        try {
+            String previous = keysByBookId.get(bookId);
+            if (previous != null && previous.equals(key)) {
+                return;
+            }
+            removeInternal(bookId);
+            if (key == null) {
+                return;
+            }
+            if ((used + 1) * 100L > (long) keys.length * MAX_LOAD_PERCENT) {
+                rehash();
+            }
+            long hash = hash(key);
+            int slot = findSlot(key, hash);
+            if (keys[slot] != null && keys[slot] != TOMBSTONE) {
+                // Ugyanaz a normalizált ISBN más könyvnél: az utolsó írás nyer
+                keysByBookId.remove(bookIds[slot]);
+            } else {
+                if (keys[slot] == null) {
+                    used++;
+                }
+                size++;
+                keys[slot] = key;
+                addToBloom(hash);
+            }
+            bookIds[slot] = bookId;
+            keysByBookId.put(bookId, key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public OptionalLong find(String isbn) {
+        String key = normalize(isbn);
+        if (key == null) {
+            return OptionalLong.empty();
+        }
+        long hash = hash(key);
+        lock.readLock().lock();
+        try {
+            if (!mightContain(hash)) {
+                return OptionalLong.empty();
+            }
+            int slot = findSlot(key, hash);
+            return keys[slot] != null && keys[slot] != TOMBSTONE
+                    ? OptionalLong.of(bookIds[slot])
+                    : OptionalLong.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            keysByBookId.clear();
+            allocate(MIN_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long bookId) {
+        String key = keysByBookId.remove(bookId);
+        if (key == null) {
+            return;
+        }
+        int slot = findSlot(key, hash(key));
+        // Közben egy másik könyv vehette át a kulcsot; azt nem töröljük
+        if (keys[slot] != null && keys[slot] != TOMBSTONE && bookIds[slot] == bookId) {
+            keys[slot] = TOMBSTONE;
+            size--;
+        }
+    }
+
+    // A kulcs helye, vagy ha nincs a táblában, az első szabad (törölt vagy üres) hely a próbasorban
+    private int findSlot(String key, long hash) {
+        int mask = keys.length - 1;
+        int slot = (int) hash & mask;
+        int firstFree = -1;
+        while (keys[slot] != null) {
+            if (keys[slot] == TOMBSTONE) {
+                if (firstFree < 0) {
+                    firstFree = slot;
+                }
+            } else if (keys[slot].equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return firstFree >= 0 ? firstFree : slot;
+    }
+
+    // A törölt helyek eltűnnek, a Bloom szűrő a megmaradt kulcsokból újraépül
+    private void rehash() {
+        String[] oldKeys = keys;
+        long[] oldBookIds = bookIds;
+        int capacity = MIN_CAPACITY;
+        while ((size + 1) * 100L > (long) capacity * MAX_LOAD_PERCENT / 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            String key = oldKeys[i];
+            if (key != null && key != TOMBSTONE) {
+                long hash = hash(key);
+                int slot = findSlot(key, hash);
+                keys[slot] = key;
+                bookIds[slot] = oldBookIds[i];
+                addToBloom(hash);
+                size++;
+                used++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        bookIds = new long[capacity];
+        bloom = new long[capacity * BLOOM_BITS_PER_SLOT / 64];
+        size = 0;
+        used = 0;
+    }
+
+    // Kettős hash: a 64 bites hash két fele adja a Bloom szűrő bitpozícióit
+    private void addToBloom(long hash) {
+        int bitMask = bloom.length * 64 - 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long hash) {
+        int bitMask = bloom.length * 64 - 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a, murmur3 végső keveréssel, hogy az alsó bitek is egyenletesen oszoljanak el
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.Author;
+import org.example.repository.AuthorRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Az Author.bookCount karbantartása a könyvírások tranzakciójában, célzott UPDATE ... SET book_count = book_count + ?
+// utasításokkal. A szerző verziója nem változik (a szerző ETag-je, a PATCH/PUT verzióellenőrzése és a könyvek
+// ETag-jei így nem függnek más könyvek írásától), és a persistence contextben lévő szerző nem töltődik újra.
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class AuthorBookCounter {
+
+    private final AuthorRepository authorRepository;
+
+    public void bookAdded(Author author) {
+        adjust(author, 1);
+    }
+
+    public void bookRemoved(Author author) {
+        adjust(author, -1);
+    }
+
+    public void bookMoved(Author from, Author to) {
+        if (from != null && to != null && Objects.equals(from.getId(), to.getId())) {
+            return;
+        }
+        // Mindig a kisebb id sorát zároljuk előbb, így két ellentétes áthelyezés nem akad össze
+        if (from != null && to != null && from.getId() > to.getId()) {
+            adjust(to, 1);
+            adjust(from, -1);
+        } else {
+            adjust(from, -1);
+            adjust(to, 1);
+        }
+    }
+
+    // Tömeges változás (szerző id -> könyvszám változás): változás értékenként egy UPDATE ... WHERE id IN (...)
+    public void adjustAll(Map<Long, Integer> deltas) {
+        Map<Integer, List<Long>> idsByDelta = new TreeMap<>();
+        new TreeMap<>(deltas).forEach((id, delta) -> {
+            if (delta != 0) {
+                idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(id);
+            }
+        });
+        idsByDelta.forEach((delta, ids) -> authorRepository.adjustBookCounts(ids, delta));
+    }
+
+    private void adjust(Author author, int delta) {
+        if (author == null || author.getId() == null) {
+            return;
+        }
+        authorRepository.adjustBookCounts(List.of(author.getId()), delta);
+    }
+}
@@ -1,26 +1,86 @@
 package org.example.service;
 
+import org.example.dto.AuthorBooks;
+import org.example.dto.AuthorBooksResult;
+import org.example.dto.AuthorPatch;
+import org.example.dto.AuthorSummary;
+import org.example.dto.BookSummary;
+import org.example.dto.DeleteResult;
+import org.example.dto.PageResult;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogChangePublisher;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ResourceNotFoundException;
 import org.example.model.Author;
 import org.example.model.Book;
 import org.example.repository.AuthorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AuthorService {
 
+    // A könyvszámos listázás ezek szerint rendezhető
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "bookCount");
+
+    // Egy csoportos könyvlekérdezésben kérhető szerzők maximuma
+    static final int MAX_BATCH_AUTHOR_IDS = 500;
+
     private final AuthorRepository authorRepository;
+    private final SerializedFragmentCache fragmentCache;
+    private final EntityManager entityManager;
+    private final CatalogChangePublisher changePublisher;
+    private final BookService bookService;
 
     @Transactional(readOnly = true)
     public List<Author> findAllAuthors() {
         return authorRepository.findAll();
     }
 
+    // Az összes szerző előre szerializált töredékekként (JSON vagy CBOR); csak az új vagy módosult szerzőket töltjük be
+    @Transactional(readOnly = true)
+    public List<byte[]> findAllAuthorFragments(SerializedFragmentCache.Format format) {
+        List<SerializedFragmentCache.Key> keys = authorRepository.findAllVersions().stream()
+                .map(version -> new SerializedFragmentCache.Key(format, Author.class, version.getId(), version.getVersion(), null))
+                .collect(Collectors.toList());
+        return fragmentCache.fragments(keys, authorRepository::findAllById,
+                author -> new SerializedFragmentCache.Key(format, Author.class, author.getId(), author.getVersion(), null));
+    }
+
+    // Lapozott lista a könyvszámokkal; egyetlen lekérdezés az author táblán (és egy COUNT)
+    @Transactional(readOnly = true)
+    public PageResult<AuthorSummary> findAuthorSummaries(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidRequestException("Unsupported sort property: " + order.getProperty());
+            }
+        }
+        Sort sort = pageable.getSort().getOrderFor("id") == null
+                ? pageable.getSort().and(Sort.by("id"))
+                : pageable.getSort();
+        return PageResult.of(authorRepository.findSummaries(
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)), Function.identity());
+    }
+
     @Transactional(readOnly = true)
     public Optional<Author> findAuthorById(Long id) {
         return authorRepository.findById(id);
@@ -39,9 +99,54 @@ public class AuthorService {
         return authorRepository.save(author);
     }
 
+    // Átnevezés egyetlen utasítással (célzott UPDATE verzióellenőrzéssel, H2 FINAL TABLE visszaolvasás);
+    // a második szintű cache zárolása és a változásesemény kézzel, lásd BookService.patchBook
+    @Transactional
+    public AuthorPatch patchAuthor(Long id, AuthorPatch patch) {
+        BookService.checkPatch(patch.getUnsupportedFields(), patch.getVersion(), patch.getName() != null,
+                "Author name", patch.getName());
+
+        Query update = entityManager.createNativeQuery("SELECT id, name, version FROM FINAL TABLE ("
+                + "UPDATE author SET name = :name, version = version + 1 WHERE id = :id AND version = :version)");
+        update.setParameter("name", patch.getName());
+        update.setParameter("id", id);
+        update.setParameter("version", patch.getVersion());
+
+        BookService.lockCacheEntry(entityManager, Author.class, id, patch.getVersion());
+        List<?> rows = update.getResultList();
+        if (rows.isEmpty()) {
+            if (!authorRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Author not found with id: " + id);
+            }
+            throw new ObjectOptimisticLockingFailureException(Author.class, id);
+        }
+        Object[] row = (Object[]) rows.get(0);
+        AuthorPatch result = new AuthorPatch(((Number) row[2]).longValue(), (String) row[1]);
+
+        changePublisher.publishAfterCommit(CatalogChangeEvent.authorSaved(CatalogChangeEvent.Operation.UPDATE, id,
+                result.getName(), result.getVersion()));
+        return result;
+    }
+
+    // Szerző törlése a könyveivel együtt két utasítással (könyvek, majd a szerző), a könyvek
+    // egyenkénti betöltése és törlése (cascade, orphanRemoval) nélkül
     @Transactional
-    public void deleteAuthor(Long id) {
-        authorRepository.deleteById(id);
+    public DeleteResult deleteAuthor(Long id) {
+        List<Long> bookIds = bookService.deleteBooksOfAuthor(id);
+        List<?> deleted = entityManager.createNativeQuery("SELECT version FROM OLD TABLE (DELETE FROM author WHERE id = :id)")
+                .setParameter("id", id)
+                .getResultList();
+        if (deleted.isEmpty()) {
+            // A könyvtörlés is visszagördül
+            throw new ResourceNotFoundException("Author not found with id: " + id);
+        }
+
+        BookService.detachDeleted(entityManager, Author.class, List.of(id));
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        changePublisher.runAfterCommit(() -> cache.evict(Author.class, id));
+        Long version = deleted.get(0) != null ? ((Number) deleted.get(0)).longValue() : null;
+        changePublisher.publishAfterCommit(CatalogChangeEvent.authorDeleted(id, version));
+        return new DeleteResult(bookIds.size(), 1, List.of());
     }
 
     @Transactional(readOnly = true)
@@ -50,4 +155,38 @@ public class AuthorService {
                 .map(Author::getBooks)
                 .orElseThrow(() -> new RuntimeException("Author not found"));
     }
-}
\ No newline at end of file
+
+    // Több szerző könyvei egy lekérdezéssel, szerzőnként csoportosítva; a nem létező id-k külön listában
+    @Transactional(readOnly = true)
+    public AuthorBooksResult findBooksByAuthorIds(List<Long> authorIds) {
+        Set<Long> ids = new LinkedHashSet<>(authorIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new InvalidRequestException("At least one author id is required");
+        }
+        if (ids.size() > MAX_BATCH_AUTHOR_IDS) {
+            throw new InvalidRequestException("Too many author ids: " + ids.size() + " (max " + MAX_BATCH_AUTHOR_IDS + ")");
+        }
+
+        Map<Long, AuthorBooks> byAuthor = new LinkedHashMap<>();
+        for (BookSummary row : authorRepository.findBookSummariesByAuthorIdIn(ids)) {
+            AuthorBooks author = byAuthor.computeIfAbsent(row.getAuthorId(),
+                    id -> new AuthorBooks(id, row.getAuthorName(), new ArrayList<>()));
+            if (row.getId() != null) {
+                author.getBooks().add(row);
+            }
+        }
+
+        List<AuthorBooks> authors = new ArrayList<>(byAuthor.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            AuthorBooks author = byAuthor.get(id);
+            if (author != null) {
+                authors.add(author);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new AuthorBooksResult(authors, missingIds);
+    }
+}
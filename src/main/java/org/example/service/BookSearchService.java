@@ -0,0 +1,224 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BookSearchHit;
+import org.example.dto.BookSearchResult;
+import org.example.dto.BookSummary;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogResetEvent;
+import org.example.model.Book;
+import org.example.repository.BookRepository;
+import org.example.search.BookSearchIndex;
+import org.example.search.IsbnIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Timed("library.service")
+@Slf4j
+public class BookSearchService {
+
+    // Egy keresési lap maximális mérete
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SingleFlight singleFlight;
+
+    private final Object indexLock = new Object();
+    private final List<CatalogChangeEvent> pendingEvents = new ArrayList<>();
+    private volatile BookSearchIndex index = new BookSearchIndex();
+    private volatile IsbnIndex isbnIndex = new IsbnIndex();
+    private volatile boolean ready;
+    private boolean rebuilding;
+    // Újraépítés közbeni törlés: a friss index tartalma érvénytelen, csak az utána jött változások számítanak
+    private boolean resetDuringRebuild;
+    // Entitásonként az utoljára alkalmazott változás sorrendje (lásd order); a törlés sírkőként itt marad,
+    // így a párhuzamos tranzakciók sorrenden kívül érkező (régebbi) eseményei nem írják felül az indexet
+    private final Map<CatalogChangeEvent.EntityType, Map<Long, Long>> appliedChanges =
+            new EnumMap<>(CatalogChangeEvent.EntityType.class);
+
+    public BookSearchService(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                             SingleFlight singleFlight) {
+        this.bookRepository = bookRepository;
+        this.singleFlight = singleFlight;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public BookSearchResult search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        if (ready) {
+            return index.search(query, pageNumber, pageSize);
+        }
+        // Amíg az index épül, az adatbázisból keresünk (relevancia nélkül)
+        return searchDatabase(query, pageNumber, pageSize);
+    }
+
+    // ISBN alapú keresés: az adatbázishoz (az L2 cache-en át) csak az indexben talált könyvért nyúlunk.
+    // Érvényes ISBN bármely írásmóddal találja a könyvet (az index előtt is); minden más pontos egyezés.
+    public Optional<Book> findByIsbn(String isbn) {
+        String key = IsbnIndex.normalize(isbn);
+        if (key == null) {
+            return bookRepository.findByIsbn(isbn);
+        }
+        if (!ready) {
+            return bookRepository.findByCompactIsbnIn(IsbnIndex.spellings(key)).stream()
+                    .filter(book -> key.equals(IsbnIndex.normalize(book.getIsbn())))
+                    .findFirst();
+        }
+        OptionalLong bookId = isbnIndex.find(key);
+        if (bookId.isEmpty()) {
+            return Optional.empty();
+        }
+        // Az index egy közben módosult könyvre is mutathat: a találat ISBN-jének a kulcsra kell normalizálódnia
+        return bookRepository.findById(bookId.getAsLong())
+                .filter(book -> key.equals(IsbnIndex.normalize(book.getIsbn())));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Az indexeket a háttérben, egy katalógus bejárással építjük újra; a közben érkező változásokat a csere után visszajátsszuk
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        synchronized (indexLock) {
+            rebuilding = true;
+            resetDuringRebuild = false;
+            pendingEvents.clear();
+        }
+        long start = System.currentTimeMillis();
+        BookSearchIndex fresh = new BookSearchIndex();
+        IsbnIndex freshIsbns = new IsbnIndex();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<BookSummary> books = bookRepository.streamAllSummaries()) {
+                    books.forEach(book -> {
+                        fresh.putBook(book);
+                        freshIsbns.put(book.getId(), book.getIsbn());
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (indexLock) {
+                rebuilding = false;
+                pendingEvents.clear();
+            }
+            throw e;
+        }
+        synchronized (indexLock) {
+            if (resetDuringRebuild) {
+                fresh.clear();
+                freshIsbns.clear();
+            }
+            pendingEvents.forEach(event -> apply(fresh, freshIsbns, event));
+            pendingEvents.clear();
+            index = fresh;
+            isbnIndex = freshIsbns;
+            rebuilding = false;
+            ready = true;
+        }
+        log.info("Keresőindex felépítve: {} könyv, {} ISBN, {} ms", fresh.size(), freshIsbns.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @EventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        synchronized (indexLock) {
+            if (!isNewer(event)) {
+                return;
+            }
+            if (rebuilding) {
+                pendingEvents.add(event);
+            }
+            apply(index, isbnIndex, event);
+        }
+    }
+
+    @EventListener
+    public void onCatalogReset(CatalogResetEvent event) {
+        synchronized (indexLock) {
+            if (rebuilding) {
+                pendingEvents.clear();
+                resetDuringRebuild = true;
+            }
+            index.clear();
+            isbnIndex.clear();
+            appliedChanges.clear();
+        }
+    }
+
+    // Csak az entitás utoljára alkalmazott változásánál újabb esemény számít (és ezt feljegyzi)
+    private boolean isNewer(CatalogChangeEvent event) {
+        Map<Long, Long> changes = appliedChanges.computeIfAbsent(event.getEntityType(), type -> new HashMap<>());
+        Long last = changes.get(event.getEntityId());
+        Long order = order(event);
+        if (order == null) {
+            // Verzió nélküli mentés: csak törölt entitást nem hoz vissza
+            return last == null || last % 2 == 0;
+        }
+        if (last != null && order <= last) {
+            return false;
+        }
+        changes.put(event.getEntityId(), order);
+        return true;
+    }
+
+    // Egy entitás változásainak sorrendje: verzió szerint, azonos verzión belül a törlés (amely az utolsó
+    // ismert verziót hordozza) a mentés után; a verzió nélküli törlés végleges
+    private static Long order(CatalogChangeEvent event) {
+        boolean delete = event.getOperation() == CatalogChangeEvent.Operation.DELETE;
+        if (event.getVersion() == null) {
+            return delete ? Long.MAX_VALUE : null;
+        }
+        return event.getVersion() * 2 + (delete ? 1 : 0);
+    }
+
+    private static void apply(BookSearchIndex target, IsbnIndex isbns, CatalogChangeEvent event) {
+        if (event.getEntityType() == CatalogChangeEvent.EntityType.BOOK) {
+            if (event.getOperation() == CatalogChangeEvent.Operation.DELETE) {
+                target.removeBook(event.getEntityId());
+                isbns.remove(event.getEntityId());
+            } else {
+                target.putBook(event.getBook());
+                isbns.put(event.getEntityId(), event.getBook().getIsbn());
+            }
+        } else {
+            if (event.getOperation() == CatalogChangeEvent.Operation.DELETE) {
+                target.removeAuthor(event.getEntityId());
+            } else {
+                target.putAuthor(event.getEntityId(), event.getAuthorName());
+            }
+        }
+    }
+
+    private BookSearchResult searchDatabase(String query, int page, int pageSize) {
+        // Az azonos kulcsszóra egyszerre érkező keresések (lapozástól függetlenül) egy lekérdezésen osztoznak
+        List<BookSummary> matches = singleFlight.read("search", query, () ->
+                bookRepository.findByTitleOrAuthorNameContaining(query).stream()
+                        .map(BookSummary::from)
+                        .collect(Collectors.toList()));
+        int from = (int) Math.min((long) page * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        List<BookSearchHit> hits = matches.subList(from, to).stream()
+                .map(book -> new BookSearchHit(book, 0))
+                .collect(Collectors.toList());
+        return new BookSearchResult(matches.size(), page, pageSize, hits);
+    }
+}
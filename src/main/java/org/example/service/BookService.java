@@ -1,33 +1,162 @@
 package org.example.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.dto.BookPatch;
+import org.example.dto.BookQuery;
+import org.example.dto.BookSummary;
+import org.example.dto.BookVersion;
+import org.example.dto.CursorPage;
+import org.example.dto.DeleteResult;
+import org.example.dto.PageResult;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogChangePublisher;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ResourceNotFoundException;
 import org.example.model.Book;
 import org.example.repository.BookRepository;
+import org.example.repository.BookSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("library.service")
 @RequiredArgsConstructor
 public class BookService {
 
+    // Ennyi sor után ürítjük a persistence contextet folyamolvasáskor
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
+    // Egy csoportos törlésben megadható könyvek maximuma
+    static final int MAX_BATCH_DELETE_IDS = 1000;
+
+    // A rendezéshez engedélyezett mezők (kérés paraméter -> entitás útvonal)
+    private static final Map<String, String> SORTABLE_PROPERTIES = Map.of(
+            "id", "id",
+            "title", "title",
+            "isbn", "isbn",
+            "author", "author.name");
+
     private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final AuthorBookCounter authorBookCounter;
+    private final SerializedFragmentCache fragmentCache;
+    private final CatalogChangePublisher changePublisher;
+    private final SingleFlight singleFlight;
 
     @Transactional(readOnly = true)
     public List<Book> findAllBooks() {
         return bookRepository.findAll();
     }
 
+    // Az összes könyv előre szerializált töredékekként (JSON vagy CBOR): egy verzió lekérdezés,
+    // és csak a cache-ből hiányzó (új vagy módosult) könyvek betöltése és szerializálása
+    @Transactional(readOnly = true)
+    public List<byte[]> findAllBookFragments(SerializedFragmentCache.Format format) {
+        List<SerializedFragmentCache.Key> keys = bookRepository.findAllVersions().stream()
+                .map(version -> fragmentKey(format, version))
+                .collect(Collectors.toList());
+        return fragmentCache.fragments(keys, bookRepository::findAllWithAuthorByIdIn, book -> fragmentKey(format, book));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Book> findBooksAfter(Long after, int limit) {
+        List<Book> books = bookRepository.findPageAfter(after, PageRequest.of(0, limit));
+        Long nextCursor = books.size() == limit ? books.get(books.size() - 1).getId() : null;
+        return new CursorPage<>(books, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookSummary> findAllBookSummaries() {
+        return bookRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<BookSummary> findBookSummariesAfter(Long after, int limit) {
+        List<BookSummary> books = bookRepository.findSummaryPageAfter(after, PageRequest.of(0, limit));
+        Long nextCursor = books.size() == limit ? books.get(books.size() - 1).getId() : null;
+        return new CursorPage<>(books, nextCursor);
+    }
+
+    // Tetszőleges szűrőkombináció egyetlen paraméterezett lekérdezésként
+    @Transactional(readOnly = true)
+    public PageResult<BookSummary> queryBooks(BookQuery query, Pageable pageable) {
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), toEntitySort(pageable.getSort()));
+        return PageResult.of(bookRepository.findAll(BookSpecifications.matching(query), page), BookSummary::from);
+    }
+
+    // Csak ismert mezők szerint rendezünk; az id a végén stabil sorrendet ad a lapok között
+    private static Sort toEntitySort(Sort requested) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : requested) {
+            String property = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new InvalidRequestException("Unsupported sort property: " + order.getProperty());
+            }
+            orders.add(order.withProperty(property));
+        }
+        if (requested.getOrderFor("id") == null) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        return Sort.by(orders);
+    }
+
+    // A könyveket egyenként adja át, így a memóriahasználat nem függ a katalógus méretétől
     @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            int[] count = {0};
+            books.forEach(book -> {
+                consumer.accept(book);
+                if (++count[0] % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
+
+    // GET /api/books/{id}: az azonos könyvre egyszerre érkező kérések egy betöltésen osztoznak
     public Optional<Book> findBookById(Long id) {
-        return bookRepository.findById(id);
+        return singleFlight.read("book", id, () -> bookRepository.findById(id), found -> found.map(Book::detachedCopy));
+    }
+
+    // Erős ETag egy könyvhöz a könyv és a szerző verziójából; üres, ha nincs ilyen könyv
+    @Transactional(readOnly = true)
+    public Optional<String> findBookETag(Long id) {
+        return bookRepository.findVersionById(id)
+                .map(version -> "\"book-" + id + "-" + version.getVersion() + "-" + version.getAuthorVersion() + "\"");
     }
 
+    // Új könyv (a controller nem enged meg megadott id-t, lásd BookController.createBook)
     @Transactional
     public Book saveBook(Book book) {
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        authorBookCounter.bookAdded(saved.getAuthor());
+        return saved;
     }
 
     @Transactional
@@ -39,8 +168,181 @@ public class BookService {
         return bookRepository.save(book);
     }
 
+    // Részleges módosítás egyetlen utasítással: célzott UPDATE verzióellenőrzéssel, és ugyanabban
+    // az utasításban (H2 FINAL TABLE) a módosult sor visszaolvasása. Az entitás nem töltődik be,
+    // ezért a második szintű cache zárolása és a változásesemény kézzel történik.
+    @Transactional
+    public BookPatch patchBook(Long id, BookPatch patch) {
+        checkPatch(patch.getUnsupportedFields(), patch.getVersion(),
+                patch.getTitle() != null || patch.getIsbn() != null, "Title", patch.getTitle());
+
+        StringBuilder set = new StringBuilder("version = version + 1");
+        if (patch.getTitle() != null) {
+            set.append(", title = :title");
+        }
+        if (patch.getIsbn() != null) {
+            set.append(", isbn = :isbn");
+        }
+        Query update = entityManager.createNativeQuery("SELECT id, title, isbn, author_id, version FROM FINAL TABLE ("
+                + "UPDATE book SET " + set + " WHERE id = :id AND version = :version)");
+        update.setParameter("id", id);
+        update.setParameter("version", patch.getVersion());
+        if (patch.getTitle() != null) {
+            update.setParameter("title", patch.getTitle());
+        }
+        if (patch.getIsbn() != null) {
+            update.setParameter("isbn", patch.getIsbn());
+        }
+
+        lockCacheEntry(entityManager, Book.class, id, patch.getVersion());
+        List<?> rows = update.getResultList();
+        if (rows.isEmpty()) {
+            // Csak a sikertelen ágon kérdezünk rá, hogy a hiba oka a hiányzó könyv vagy az elavult verzió
+            if (!bookRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Book not found with id: " + id);
+            }
+            throw new ObjectOptimisticLockingFailureException(Book.class, id);
+        }
+        Object[] row = (Object[]) rows.get(0);
+        Long authorId = row[3] != null ? ((Number) row[3]).longValue() : null;
+        BookPatch result = new BookPatch(((Number) row[4]).longValue(), (String) row[1], (String) row[2]);
+
+        if (patch.getIsbn() != null) {
+            // A findByIsbn lekérdezés cache-t a Hibernate nem érvényteleníti natív írásnál
+            Cache cache = entityManager.getEntityManagerFactory().getCache();
+            changePublisher.runAfterCommit(() -> cache.unwrap(org.hibernate.Cache.class).evictDefaultQueryRegion());
+        }
+        // A szerző nevét az index a saját adataiból tölti ki
+        changePublisher.publishAfterCommit(CatalogChangeEvent.bookSaved(CatalogChangeEvent.Operation.UPDATE,
+                new BookSummary(id, result.getTitle(), result.getIsbn(), authorId, null), result.getVersion()));
+        return result;
+    }
+
     @Transactional
     public void deleteBook(Long id) {
-        bookRepository.deleteById(id);
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        authorBookCounter.bookRemoved(book.getAuthor());
+        bookRepository.delete(book);
+    }
+
+    // Csoportos törlés egyetlen DELETE utasítással; a H2 OLD TABLE visszaadja a ténylegesen törölt
+    // sorokat, így a könyvszámok és az események pontosan a törölt könyvekre vonatkoznak
+    @Transactional
+    public DeleteResult deleteBooks(List<Long> bookIds) {
+        Set<Long> ids = new LinkedHashSet<>(bookIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new InvalidRequestException("At least one book id is required");
+        }
+        if (ids.size() > MAX_BATCH_DELETE_IDS) {
+            throw new InvalidRequestException("Too many book ids: " + ids.size() + " (max " + MAX_BATCH_DELETE_IDS + ")");
+        }
+
+        List<?> rows = entityManager.createNativeQuery("SELECT id, version, author_id FROM OLD TABLE ("
+                        + "DELETE FROM book WHERE id IN (:ids))")
+                .setParameter("ids", ids)
+                .getResultList();
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            if (columns[2] != null) {
+                deltas.merge(((Number) columns[2]).longValue(), -1, Integer::sum);
+            }
+        }
+        authorBookCounter.adjustAll(deltas);
+        List<Long> deletedIds = booksDeleted(rows);
+
+        ids.removeAll(deletedIds);
+        return new DeleteResult(deletedIds.size(), 0, new ArrayList<>(ids));
+    }
+
+    // A szerző összes könyve egy utasítással (szerző törlése előtt, a könyvszám ezért nem változik)
+    List<Long> deleteBooksOfAuthor(Long authorId) {
+        List<?> rows = entityManager.createNativeQuery("SELECT id, version FROM OLD TABLE ("
+                        + "DELETE FROM book WHERE author_id = :authorId)")
+                .setParameter("authorId", authorId)
+                .getResultList();
+        return booksDeleted(rows);
+    }
+
+    // A natív törlésről a Hibernate nem tud: cache ürítés és törlési események (id, utolsó verzió) commit után
+    private List<Long> booksDeleted(List<?> rows) {
+        List<Long> deletedIds = new ArrayList<>(rows.size());
+        if (rows.isEmpty()) {
+            return deletedIds;
+        }
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            Long id = ((Number) columns[0]).longValue();
+            Long version = columns[1] != null ? ((Number) columns[1]).longValue() : null;
+            deletedIds.add(id);
+            changePublisher.publishAfterCommit(CatalogChangeEvent.bookDeleted(id, version));
+        }
+        detachDeleted(entityManager, Book.class, deletedIds);
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(org.hibernate.Cache.class);
+        changePublisher.runAfterCommit(() -> {
+            deletedIds.forEach(id -> cache.evictEntityData(Book.class, id));
+            // A findByIsbn és findByAuthorId lekérdezés cache törölt azonosítókat tartalmazhat
+            cache.evictDefaultQueryRegion();
+        });
+        return deletedIds;
+    }
+
+    // A PATCH kérések közös ellenőrzése: csak módosítható mezők, kötelező verzió, legalább egy módosítás,
+    // és a megadott kötelező szöveges mező nem lehet üres
+    static void checkPatch(Set<String> unsupportedFields, Long version, boolean hasChanges,
+                           String requiredField, String requiredValue) {
+        if (!unsupportedFields.isEmpty()) {
+            throw new InvalidRequestException("Unsupported fields: " + String.join(", ", unsupportedFields));
+        }
+        if (version == null) {
+            throw new InvalidRequestException("Version is required");
+        }
+        if (!hasChanges) {
+            throw new InvalidRequestException("No fields to update");
+        }
+        if (requiredValue != null && requiredValue.isBlank()) {
+            throw new InvalidRequestException(requiredField + " must not be blank");
+        }
+    }
+
+    // Natív UPDATE előtt a sor második szintű cache bejegyzése a tranzakció végéig zárolva marad, ahogy a
+    // Hibernate a saját UPDATE-jeinél teszi: közben senki nem olvas belőle, utána pedig csak a módosításnál
+    // újabb verzió kerülhet bele (egy commit előtt betöltött régi állapot nem)
+    static void lockCacheEntry(EntityManager entityManager, Class<?> type, Long id, Long version) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(type);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        Object key = access.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        SoftLock lock = access.lockItem(session, key, version);
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completed) -> access.unlockItem(completed, key, lock));
+    }
+
+    // Ha a tranzakcióban korábban betöltötték, a natívan törölt entitás a persistence contextből is kikerül
+    // (különben ugyanebben a tranzakcióban a findById még visszaadná)
+    static void detachDeleted(EntityManager entityManager, Class<?> type, Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(type);
+        for (Long id : ids) {
+            Object entity = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+            if (entity != null) {
+                entityManager.detach(entity);
+            }
+        }
+    }
+
+    private static SerializedFragmentCache.Key fragmentKey(SerializedFragmentCache.Format format, BookVersion version) {
+        return new SerializedFragmentCache.Key(format, Book.class, version.getId(), version.getVersion(),
+                version.getAuthorVersion());
+    }
+
+    private static SerializedFragmentCache.Key fragmentKey(SerializedFragmentCache.Format format, Book book) {
+        Long authorVersion = book.getAuthor() != null ? book.getAuthor().getVersion() : null;
+        return new SerializedFragmentCache.Key(format, Book.class, book.getId(), book.getVersion(), authorVersion);
     }
-}
\ No newline at end of file
+}
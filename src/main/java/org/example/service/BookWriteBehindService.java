@@ -0,0 +1,353 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkItemResult;
+import org.example.dto.BulkResult;
+import org.example.dto.PendingBook;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ServiceOverloadedException;
+import org.example.model.Book;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Aszinkron (write-behind) könyvfelvitel: a kérés csak ellenőrzés után sorba kerül és 202-t kap, egy
+// író szál pedig a sorban összegyűlt kéréseket egy tranzakcióban, JDBC batch-ben írja ki (group commit,
+// BulkIngestionService). Terhelés alatt a batch-ek maguktól nőnek: amíg egy commit tart, a következő
+// kérések a sorban gyűlnek. Megtelt sornál 503 + Retry-After (visszanyomás).
+// Leálláskor a sor még kiíródik; amit a határidőig nem sikerül (a sor és a félbemaradt batch), fájlba kerül,
+// és induláskor újra sorra kerül. A fájl csak a sikeres újrakiírás után törlődik (legalább egyszeri kiírás:
+// ISBN nélküli könyv összeomlás vagy leállási időtúllépés után kétszer is létrejöhet).
+@Service
+@Slf4j
+public class BookWriteBehindService {
+
+    private final BulkIngestionService bulkIngestionService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final Path spillFile;
+
+    private final BlockingQueue<Queued> queue;
+    // Az elfogadott, de még ki nem írt kérések (a sorban és a folyamatban lévő batch-ben), elfogadási sorrendben;
+    // a batch lezárulásakor kerülnek ki, így leállási időtúllépésnél a félbemaradt batch is menthető
+    private final Map<String, Queued> unfinished = Collections.synchronizedMap(new LinkedHashMap<>());
+    // A mentési fájl írásai (leállási mentés, újrakiírás utáni törlés) egymást nem írhatják felül
+    private final Object spillLock = new Object();
+    // Az állapotok a commit után még status-retention ideig kérdezhetők le
+    private final Cache<String, PendingBook> statuses;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedFull;
+
+    private volatile boolean accepting = true;
+    private volatile boolean running;
+    private Thread writer;
+
+    public BookWriteBehindService(BulkIngestionService bulkIngestionService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${library.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${library.write-behind.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${library.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${library.write-behind.status-retention:10m}") Duration statusRetention,
+                                  @Value("${library.write-behind.shutdown-timeout:10s}") Duration shutdownTimeout,
+                                  @Value("${library.write-behind.spill-file:write-behind-spill.ndjson}") Path spillFile) {
+        this.bulkIngestionService = bulkIngestionService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.spillFile = spillFile;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .maximumSize(queueCapacity * 10L)
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.rejectedFull = items("queue-full");
+        Gauge.builder("library.write-behind.queue", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    // Csak bekapcsolt módban és a kliens kérésére (Prefer: respond-async), egyébként szinkron felvitel
+    public boolean accepts(String prefer) {
+        return enabled && prefer != null && prefer.toLowerCase(Locale.ROOT).contains("respond-async");
+    }
+
+    // Az olcsó ellenőrzések itt (400); a szerző létezése és az ISBN ütközés a batch-ben dől el (REJECTED)
+    public PendingBook submit(Book book) {
+        if (book.getTitle() == null || book.getTitle().isBlank()) {
+            throw new InvalidRequestException("Title is required");
+        }
+        if (book.getAuthor() == null || book.getAuthor().getId() == null) {
+            throw new InvalidRequestException("Author id is required");
+        }
+        Queued queued = new Queued(UUID.randomUUID().toString(),
+                new BulkBookRequest(book.getTitle(), book.getIsbn(), book.getAuthor().getId()));
+        PendingBook status = new PendingBook(queued.getId(), PendingBook.State.QUEUED, null, null, Instant.now());
+        // Az ellenőrzés és a sorba állítás a leállás zárolása alatt: az elfogadott kérés így biztosan
+        // benne van a leállási mentésben (különben 202 után se ki nem íródna, se fájlba nem kerülne)
+        synchronized (unfinished) {
+            if (!accepting) {
+                throw new ServiceOverloadedException("Shutting down, book creation is not accepted", 5);
+            }
+            statuses.put(queued.getId(), status);
+            unfinished.put(queued.getId(), queued);
+            if (!queue.offer(queued)) {
+                unfinished.remove(queued.getId());
+                statuses.invalidate(queued.getId());
+                rejectedFull.increment();
+                throw new ServiceOverloadedException("Write queue is full", 1);
+            }
+        }
+        return status;
+    }
+
+    public Optional<PendingBook> findStatus(String id) {
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    // Az író szál először az előző leállásból megmaradt kéréseket írja ki; kikapcsolt módban csak ezek miatt indul el
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running || !accepting || (!enabled && !Files.exists(spillFile))) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "book-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (unfinished) {
+            accepting = false;
+        }
+        synchronized (this) {
+            running = false;
+        }
+        if (writer != null) {
+            try {
+                writer.join(shutdownTimeout.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Ami a határidőig nem íródott ki (a félbemaradt batch is); ha az író szál mégis befejezi, duplán jöhet létre
+        List<Queued> remaining;
+        synchronized (unfinished) {
+            remaining = new ArrayList<>(unfinished.values());
+            unfinished.clear();
+        }
+        queue.clear();
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    int queueSize() {
+        return queue.size();
+    }
+
+    // Váratlan hiba csak az adott batch-et érinti: az író szál nem állhat le, különben a sor megtelne
+    private void run() {
+        try {
+            replaySpill();
+        } catch (RuntimeException e) {
+            log.error("A mentett write-behind kérések újrakiírása sikertelen: {}", spillFile, e);
+        }
+        List<Queued> batch = new ArrayList<>(batchSize);
+        // Leállításkor a sor kiürüléséig még írunk
+        while (running || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write-behind batch váratlan hibával megszakadt ({} könyv)", batch.size(), e);
+                failQueued(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // A batch még QUEUED állapotú kérései FAILED-re váltanak (a már lezártak maradnak)
+    private void failQueued(List<Queued> batch, RuntimeException e) {
+        int failed = 0;
+        for (Queued queued : batch) {
+            PendingBook status = statuses.getIfPresent(queued.getId());
+            if (status == null || status.getState() == PendingBook.State.QUEUED) {
+                update(queued, PendingBook.State.FAILED, null, e.getMessage());
+                failed++;
+            }
+        }
+        items("failed").increment(failed);
+    }
+
+    // false, ha a batch tranzakciója sikertelen (FAILED)
+    private boolean write(List<Queued> batch) {
+        try {
+            return writeBatch(batch);
+        } finally {
+            batch.forEach(queued -> unfinished.remove(queued.getId()));
+        }
+    }
+
+    private boolean writeBatch(List<Queued> batch) {
+        BulkResult result;
+        try {
+            result = bulkIngestionService.createBooks(
+                    batch.stream().map(Queued::getRequest).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            log.error("Write-behind batch sikertelen ({} könyv)", batch.size(), e);
+            failQueued(batch, e);
+            return false;
+        }
+        for (BulkItemResult item : result.getItems()) {
+            Queued queued = batch.get(item.getIndex());
+            if (item.getStatus() == BulkItemResult.Status.CREATED) {
+                update(queued, PendingBook.State.CREATED, item.getId(), null);
+            } else {
+                update(queued, PendingBook.State.REJECTED, null, item.getError());
+            }
+        }
+        items("created").increment(result.getCreated());
+        items("rejected").increment(result.getRejected());
+        return true;
+    }
+
+    // Új példányt teszünk be, így az olvasó szál sosem lát félig módosított állapotot
+    private void update(Queued queued, PendingBook.State state, Long bookId, String error) {
+        PendingBook previous = statuses.getIfPresent(queued.getId());
+        Instant acceptedAt = previous != null ? previous.getAcceptedAt() : null;
+        statuses.put(queued.getId(), new PendingBook(queued.getId(), state, bookId, error, acceptedAt));
+    }
+
+    // Soronként egy JSON kérés; fsync, hogy az operációs rendszer összeomlását is túlélje
+    private void spill(List<Queued> remaining) {
+        synchronized (spillLock) {
+            try {
+                writeSpill(spillFile, remaining, true);
+                log.warn("{} ki nem írt könyv mentve: {}", remaining.size(), spillFile.toAbsolutePath());
+            } catch (IOException e) {
+                log.error("{} ki nem írt könyv elveszett, a mentés sikertelen: {}", remaining.size(), spillFile, e);
+            }
+        }
+    }
+
+    private void writeSpill(Path file, List<Queued> entries, boolean append) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file.toFile(), append);
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            for (Queued queued : entries) {
+                writer.write(objectMapper.writeValueAsString(queued));
+                writer.write('\n');
+            }
+            writer.flush();
+            out.getFD().sync();
+        }
+    }
+
+    private void replaySpill() {
+        if (!Files.exists(spillFile)) {
+            return;
+        }
+        List<Queued> spilled = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    spilled.add(objectMapper.readValue(line, Queued.class));
+                }
+            }
+        } catch (IOException e) {
+            log.error("A mentett write-behind kérések nem olvashatók: {}", spillFile, e);
+            return;
+        }
+        List<Queued> failed = new ArrayList<>();
+        for (int from = 0; from < spilled.size(); from += batchSize) {
+            List<Queued> batch = spilled.subList(from, Math.min(from + batchSize, spilled.size()));
+            if (!write(batch)) {
+                failed.addAll(batch);
+            }
+        }
+        // A fájlban csak a sikertelen batch-ek maradnak (a következő induláskor újra próbáljuk). Ha közben
+        // megkezdődött a leállás, a fájlhoz már hozzáfűzhetett: akkor változatlanul hagyjuk (legfeljebb duplán írunk).
+        synchronized (spillLock) {
+            if (!accepting) {
+                return;
+            }
+            try {
+                if (failed.isEmpty()) {
+                    Files.delete(spillFile);
+                } else {
+                    Path rewritten = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+                    writeSpill(rewritten, failed, false);
+                    Files.move(rewritten, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                log.error("A mentett write-behind fájl nem frissíthető: {}", spillFile, e);
+            }
+        }
+        log.info("{} mentett write-behind kérés újra feldolgozva, {} sikertelen (a fájlban marad)",
+                spilled.size(), failed.size());
+    }
+
+    private Counter items(String outcome) {
+        return Counter.builder("library.write-behind.items")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Queued {
+        private String id;
+        private BulkBookRequest request;
+    }
+}
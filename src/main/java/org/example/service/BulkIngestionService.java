@@ -0,0 +1,197 @@
+package org.example.service;
+
+import org.example.dto.BulkAuthorRequest;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkItemResult;
+import org.example.dto.BulkResult;
+import org.example.exception.InvalidRequestException;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Nagy mennyiségű könyv/szerző felvitele egy tranzakcióban, JDBC batch-ekben
+@Service
+public class BulkIngestionService {
+
+    // Az IN listák mérete ISBN ellenőrzéskor
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final AuthorBookCounter authorBookCounter;
+    private final int batchSize;
+    private final int maxItems;
+
+    public BulkIngestionService(AuthorRepository authorRepository,
+                                BookRepository bookRepository,
+                                EntityManager entityManager,
+                                AuthorBookCounter authorBookCounter,
+                                @Value("${library.bulk.batch-size:500}") int batchSize,
+                                @Value("${library.bulk.max-items:10000}") int maxItems) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.authorBookCounter = authorBookCounter;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    @Transactional
+    public BulkResult createBooks(List<BulkBookRequest> requests) {
+        checkSize(requests);
+
+        // Szerzők egyetlen lekérdezéssel, a foglalt ISBN-ek chunkonként
+        Set<Long> authorIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(BulkBookRequest::getAuthorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Author> authors = authorRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        Set<String> takenIsbns = findExistingIsbns(requests);
+
+        List<BulkItemResult> results = new ArrayList<>(requests.size());
+        List<Book> pending = new ArrayList<>(batchSize);
+        List<Integer> pendingIndexes = new ArrayList<>(batchSize);
+        Map<Long, Integer> bookCountDeltas = new HashMap<>();
+        useBatchSize();
+        for (int i = 0; i < requests.size(); i++) {
+            BulkBookRequest request = requests.get(i);
+            String error = validate(request, authors, takenIsbns);
+            if (error != null) {
+                results.add(BulkItemResult.rejected(i, error));
+                continue;
+            }
+            if (request.getIsbn() != null) {
+                takenIsbns.add(request.getIsbn());
+            }
+
+            Book book = new Book();
+            book.setTitle(request.getTitle());
+            book.setIsbn(request.getIsbn());
+            book.setAuthor(authors.get(request.getAuthorId()));
+            entityManager.persist(book);
+            bookCountDeltas.merge(request.getAuthorId(), 1, Integer::sum);
+            pending.add(book);
+            pendingIndexes.add(i);
+            results.add(null);
+
+            if (pending.size() == batchSize) {
+                flushBatch(pending, pendingIndexes, results);
+            }
+        }
+        flushBatch(pending, pendingIndexes, results);
+        // Szerzőnként egy könyvszám frissítés, nem könyvenként
+        authorBookCounter.adjustAll(bookCountDeltas);
+        return BulkResult.of(results);
+    }
+
+    @Transactional
+    public BulkResult createAuthors(List<BulkAuthorRequest> requests) {
+        checkSize(requests);
+
+        List<BulkItemResult> results = new ArrayList<>(requests.size());
+        List<Author> pending = new ArrayList<>(batchSize);
+        List<Integer> pendingIndexes = new ArrayList<>(batchSize);
+        useBatchSize();
+        for (int i = 0; i < requests.size(); i++) {
+            BulkAuthorRequest request = requests.get(i);
+            if (request == null || isBlank(request.getName())) {
+                results.add(BulkItemResult.rejected(i, "Author name is required"));
+                continue;
+            }
+
+            Author author = new Author();
+            author.setName(request.getName());
+            entityManager.persist(author);
+            pending.add(author);
+            pendingIndexes.add(i);
+            results.add(null);
+
+            if (pending.size() == batchSize) {
+                flushBatch(pending, pendingIndexes, results);
+            }
+        }
+        flushBatch(pending, pendingIndexes, results);
+        return BulkResult.of(results);
+    }
+
+    private void checkSize(List<?> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("At least one item is required");
+        }
+        if (requests.size() > maxItems) {
+            throw new InvalidRequestException("Too many items: " + requests.size() + " (max " + maxItems + ")");
+        }
+    }
+
+    private String validate(BulkBookRequest request, Map<Long, Author> authors, Set<String> takenIsbns) {
+        if (request == null || isBlank(request.getTitle())) {
+            return "Title is required";
+        }
+        if (request.getAuthorId() == null) {
+            return "Author id is required";
+        }
+        if (!authors.containsKey(request.getAuthorId())) {
+            return "Author not found with id: " + request.getAuthorId();
+        }
+        if (request.getIsbn() != null && takenIsbns.contains(request.getIsbn())) {
+            return "Book already exists with isbn: " + request.getIsbn();
+        }
+        return null;
+    }
+
+    private Set<String> findExistingIsbns(List<BulkBookRequest> requests) {
+        List<String> isbns = requests.stream()
+                .filter(Objects::nonNull)
+                .map(BulkBookRequest::getIsbn)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < isbns.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = isbns.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, isbns.size()));
+            taken.addAll(bookRepository.findExistingIsbns(chunk));
+        }
+        return taken;
+    }
+
+    // A tömegesen felvitt entitásokat nem tesszük a második szintű cache-be (nem szorítják ki a forró elemeket)
+    private void useBatchSize() {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+    }
+
+    // A batch kiírása után ürítjük a persistence contextet, így a memória nem nő a kérés méretével
+    private <T> void flushBatch(List<T> pending, List<Integer> pendingIndexes, List<BulkItemResult> results) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (int i = 0; i < pending.size(); i++) {
+            Object entity = pending.get(i);
+            Long id = entity instanceof Book ? ((Book) entity).getId() : ((Author) entity).getId();
+            results.set(pendingIndexes.get(i), BulkItemResult.created(pendingIndexes.get(i), id));
+        }
+        entityManager.clear();
+        pending.clear();
+        pendingIndexes.clear();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.service;
+
+import org.example.dto.CacheRegionStats;
+import org.springframework.stereotype.Service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// A második szintű cache régiók találat/tévesztés/kiürítés számlálói a szabványos JCache MXBean-ekből
+@Service
+public class CacheStatisticsService {
+
+    private static final String STATISTICS_QUERY = "javax.cache:type=CacheStatistics,*";
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public List<CacheRegionStats> getStatistics() {
+        List<CacheRegionStats> stats = new ArrayList<>();
+        try {
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName(STATISTICS_QUERY), null)) {
+                stats.add(new CacheRegionStats(
+                        regionName(name),
+                        (Long) mBeanServer.getAttribute(name, "CacheHits"),
+                        (Long) mBeanServer.getAttribute(name, "CacheMisses"),
+                        (Long) mBeanServer.getAttribute(name, "CachePuts"),
+                        (Long) mBeanServer.getAttribute(name, "CacheEvictions"),
+                        (Long) mBeanServer.getAttribute(name, "CacheRemovals"),
+                        (Float) mBeanServer.getAttribute(name, "CacheHitPercentage")));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cache statistics are not available", e);
+        }
+        stats.sort(Comparator.comparing(CacheRegionStats::getRegion));
+        return stats;
+    }
+
+    private static String regionName(ObjectName name) {
+        String cache = name.getKeyProperty("Cache");
+        return cache.startsWith("\"") ? ObjectName.unquote(cache) : cache;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.service;
+
+import org.example.dto.CatalogChange;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Korlátos méretű körpuffer a változásfolyam utolsó eseményeiből, 1-től növekvő sorszámmal.
+// Betelve a legrégebbi esemény íródik felül; az ennél régebbi pozícióról folytató kliens újraszinkronizál.
+public class ChangeBuffer {
+
+    private final CatalogChange[] entries;
+    // Az utoljára kiosztott sorszám (0: még nem volt esemény)
+    private long head;
+
+    public ChangeBuffer(int capacity) {
+        this.entries = new CatalogChange[capacity];
+    }
+
+    public synchronized long append(CatalogChange change) {
+        head++;
+        entries[(int) (head % entries.length)] = change;
+        return head;
+    }
+
+    public synchronized long head() {
+        return head;
+    }
+
+    // Az after utáni események (legfeljebb max darab), sorrendben; null, ha a pozíció már kiesett a pufferből
+    // vagy nem létezik (pl. újraindítás előtti sorszám)
+    public synchronized List<CatalogChange> readAfter(long after, int max) {
+        if (after < head - entries.length || after > head) {
+            return null;
+        }
+        int count = (int) Math.min(max, head - after);
+        List<CatalogChange> changes = new ArrayList<>(count);
+        for (long sequence = after + 1; sequence <= after + count; sequence++) {
+            changes.add(entries[(int) (sequence % entries.length)]);
+        }
+        return changes;
+    }
+}
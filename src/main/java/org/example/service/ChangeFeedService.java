@@ -0,0 +1,260 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.CatalogChange;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogResetEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Változásfolyam (SSE): a commitolt könyv- és szerzőváltozások (CatalogChangeEvent) sorszámot kapnak és a
+// körpufferbe kerülnek, onnan jutnak el a feliratkozókhoz. Az esemény id-je "<indulás>-<sorszám>"; a
+// Last-Event-ID fejléccel visszacsatlakozó kliens onnan folytatja, ha a pozíció még a pufferben van,
+// egyébként "reset" eseményt kap (teljes újraszinkronizálás kell).
+// A küldés külön szálakon fut, így a lassú kliens nem tartja fel a commitoló szálat. Egy feliratkozóhoz
+// egyszerre legfeljebb egy küldő szál tartozik (a heartbeat is), a szálkészlet pedig szükség szerint bővül,
+// így a küldésben elakadt kliensek sem foglalják el a többiek elől a szálakat. Ami send-timeout ideig
+// nem tud küldeni, lezárjuk; az elakadt szálat a konténer írási időkorlátja szabadítja fel.
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    static final String CATALOG = "CATALOG";
+    // Egy menetben ennyi eseményt küldünk ki a pufferből
+    private static final int SEND_BATCH = 500;
+
+    // Újraindítás után a korábbi sorszámok nem érvényesek
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ChangeBuffer buffer;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public ChangeFeedService(@Value("${library.changes.buffer-size:10000}") int bufferSize,
+                             @Value("${library.changes.emitter-timeout:30m}") Duration emitterTimeout,
+                             @Value("${library.changes.heartbeat:15s}") Duration heartbeat,
+                             @Value("${library.changes.sender-threads:4}") int senderThreads,
+                             @Value("${library.changes.send-timeout:30s}") Duration sendTimeout,
+                             MeterRegistry meterRegistry) {
+        this.buffer = new ChangeBuffer(bufferSize);
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        // sender-threads szál mindig készenlétben; afölött feliratkozónként legfeljebb egy, tétlenül egy perc után leáll
+        this.senders = new ThreadPoolExecutor(senderThreads, Integer.MAX_VALUE, 1, TimeUnit.MINUTES,
+                new SynchronousQueue<>(), task -> {
+            Thread thread = new Thread(task, "change-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "change-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::checkSubscribers, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        Gauge.builder("library.changes.subscribers", subscribers, Set::size).register(meterRegistry);
+        Gauge.builder("library.changes.sequence", buffer, ChangeBuffer::head).register(meterRegistry);
+    }
+
+    @EventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        publish(new CatalogChange(event.getEntityType().name(), event.getEntityId(), event.getOperation().name(),
+                event.getVersion()));
+    }
+
+    // A teljes katalógus tömeges törlése: minden kliensnek újra kell szinkronizálnia
+    @EventListener
+    public void onCatalogReset(CatalogResetEvent event) {
+        publish(new CatalogChange(CATALOG, null, "RESET", null));
+    }
+
+    // Last-Event-ID nélkül csak az ezután történő változások jönnek, előtte egy "position" esemény az aktuális id-vel
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        if (lastEventId == null || lastEventId.isBlank()) {
+            subscriber.cursor = buffer.head();
+            subscriber.positionPending = true;
+        } else {
+            subscriber.cursor = resumePosition(lastEventId);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.wake();
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // Az elakadt küldésű feliratkozók lezárása; a tétlenek megjegyzés sort kapnak (a tétlen kapcsolatot a proxyk
+    // így nem zárják le, a halott klienst pedig észleljük). Akinek éppen küldünk, annak nem kell heartbeat.
+    private void checkSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.stalled(now)) {
+                log.info("Változásfolyam kliens lezárva: {} ms óta nem fogadja az eseményeket",
+                        TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                subscriber.close();
+            } else {
+                subscriber.heartbeatIfIdle();
+            }
+        }
+    }
+
+    private void publish(CatalogChange change) {
+        buffer.append(change);
+        subscribers.forEach(Subscriber::wake);
+    }
+
+    // Más példány vagy korábbi indulás azonosítója, illetve hibás id: -1, ami "reset" eseményt vált ki
+    private long resumePosition(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean open = true;
+        // A folyamatban lévő küldés kezdete (System.nanoTime), 0, ha nincs küldés
+        private volatile long sendStartedAt;
+        // Az utoljára kiküldött sorszám; csak a küldő szál írja
+        private long cursor;
+        private boolean positionPending;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Egy feliratkozóhoz egyszerre legfeljebb egy küldő szál tartozik
+        void wake() {
+            if (open && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (positionPending) {
+                    positionPending = false;
+                    send(cursor, "position", new CatalogChange(CATALOG, null, "POSITION", null));
+                }
+                while (open) {
+                    List<CatalogChange> batch = cursor >= 0 ? buffer.readAfter(cursor, SEND_BATCH) : null;
+                    if (batch == null) {
+                        // A kért pozíció már nincs meg: újraszinkronizálás, utána a mostani pozíciótól folytatjuk
+                        cursor = buffer.head();
+                        send(cursor, "reset", new CatalogChange(CATALOG, null, "RESET", null));
+                        continue;
+                    }
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    for (CatalogChange change : batch) {
+                        cursor++;
+                        send(cursor, CATALOG.equals(change.getType()) ? "reset" : "change", change);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Változásfolyam kliens lecsatlakozott: {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // A küldés közben érkezett eseményeket sem hagyjuk kint
+            if (open && buffer.head() > cursor) {
+                wake();
+            }
+        }
+
+        private void send(long sequence, String name, CatalogChange change) throws IOException {
+            send(SseEmitter.event().id(eventId(sequence)).name(name).data(change, MediaType.APPLICATION_JSON));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedAt = System.nanoTime() | 1;
+            try {
+                emitter.send(event);
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        boolean stalled(long now) {
+            long started = sendStartedAt;
+            return started != 0 && now - started > sendTimeoutNanos;
+        }
+
+        // Csak tétlen feliratkozónak, a küldő szálon (a draining jelzőt a heartbeat is lefoglalja)
+        void heartbeatIfIdle() {
+            if (open && draining.compareAndSet(false, true)) {
+                senders.execute(this::heartbeat);
+            }
+        }
+
+        private void heartbeat() {
+            try {
+                send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // A heartbeat közben érkezett (vagy a feliratkozáskor elhalasztott) küldést sem hagyjuk kint
+            if (open && (positionPending || buffer.head() > cursor)) {
+                wake();
+            }
+        }
+
+        void close() {
+            open = false;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.example.exception.ResourceNotFoundException;
 import org.example.model.Author;
 import org.example.model.Book;
@@ -10,13 +11,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("library.service")
 @RequiredArgsConstructor
 public class LibraryService {
 
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final AuthorBookCounter authorBookCounter;
+    private final AuthorService authorService;
+    private final SingleFlight singleFlight;
 
     // Szerző műveletek
     @Transactional(readOnly = true)
@@ -42,10 +48,10 @@ public class LibraryService {
         return authorRepository.save(author);
     }
 
+    // Halmazalapú törlés, lásd AuthorService.deleteAuthor
     @Transactional
     public void deleteAuthor(Long id) {
-        Author author = getAuthorById(id);
-        authorRepository.delete(author);
+        authorService.deleteAuthor(id);
     }
 
     // Könyv műveletek
@@ -54,9 +60,10 @@ public class LibraryService {
         return bookRepository.findAll();
     }
 
-    @Transactional(readOnly = true)
+    // Az azonos könyvre egyszerre érkező kérések egy betöltésen osztoznak (SingleFlight)
     public Book getBookById(Long id) {
-        return bookRepository.findById(id)
+        return singleFlight.read("book", id, () -> bookRepository.findById(id),
+                        found -> found.map(Book::detachedCopy))
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
     }
 
@@ -65,7 +72,9 @@ public class LibraryService {
         // Ellenőrizzük, hogy létezik-e a szerző
         Author author = getAuthorById(book.getAuthor().getId());
         book.setAuthor(author);
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        authorBookCounter.bookAdded(author);
+        return saved;
     }
 
     @Transactional
@@ -77,6 +86,7 @@ public class LibraryService {
         // Csak akkor frissítjük a szerzőt, ha meg van adva
         if (bookDetails.getAuthor() != null && bookDetails.getAuthor().getId() != null) {
             Author author = getAuthorById(bookDetails.getAuthor().getId());
+            authorBookCounter.bookMoved(book.getAuthor(), author);
             book.setAuthor(author);
         }
 
@@ -86,19 +96,20 @@ public class LibraryService {
     @Transactional
     public void deleteBook(Long id) {
         Book book = getBookById(id);
+        authorBookCounter.bookRemoved(book.getAuthor());
         bookRepository.delete(book);
     }
 
     // Kapcsolatok kezelése
-    @Transactional(readOnly = true)
     public List<Book> getBooksByAuthorId(Long authorId) {
-        if (!authorRepository.existsById(authorId)) {
-            throw new ResourceNotFoundException("Author not found with id: " + authorId);
-        }
-        return bookRepository.findByAuthorId(authorId);
+        return singleFlight.read("author-books", authorId, () -> {
+            if (!authorRepository.existsById(authorId)) {
+                throw new ResourceNotFoundException("Author not found with id: " + authorId);
+            }
+            return bookRepository.findByAuthorId(authorId);
+        }, books -> books.stream().map(Book::detachedCopy).collect(Collectors.toList()));
     }
 
-    @Transactional(readOnly = true)
     public Author getAuthorOfBook(Long bookId) {
         Book book = getBookById(bookId);
         return book.getAuthor();
@@ -0,0 +1,174 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Előre szerializált (JSON vagy CBOR) töredékek entitásonként, azonosító és verzió szerint kulcsolva.
+// Módosításkor a verzió nő, így elavult töredéket sosem adunk vissza; a régieket a méretkorlát szorítja ki.
+@Component
+public class SerializedFragmentCache {
+
+    // A hiányzó entitásokat ekkora IN listákban töltjük be
+    static final int LOAD_CHUNK = 1000;
+
+    // Bejegyzésenkénti becsült többletköltség (kulcs, tömbfejléc) a súlyozáshoz
+    private static final int ENTRY_OVERHEAD = 64;
+
+    // Mindkét formátumban a tömb elemei önálló értékek, így a töredékek bájtszinten összefűzhetők
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON, '[', ',', ']'),
+        // Határozatlan hosszú CBOR tömb (0x9f ... 0xff), elválasztó nélkül
+        CBOR(MediaType.APPLICATION_CBOR, 0x9f, -1, 0xff);
+
+        private final MediaType mediaType;
+        private final int arrayStart;
+        private final int separator;
+        private final int arrayEnd;
+
+        Format(MediaType mediaType, int arrayStart, int separator, int arrayEnd) {
+            this.mediaType = mediaType;
+            this.arrayStart = arrayStart;
+            this.separator = separator;
+            this.arrayEnd = arrayEnd;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        // Az Accept fejléc szerint: CBOR, ha a kliens azt előbbre sorolja, egyébként (*/* esetén is) JSON
+        public static Format forAccept(String accept) {
+            if (accept == null || accept.isEmpty()) {
+                return JSON;
+            }
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(accepted);
+            for (MediaType type : accepted) {
+                if (type.includes(MediaType.APPLICATION_JSON)) {
+                    return JSON;
+                }
+                if (type.includes(MediaType.APPLICATION_CBOR)) {
+                    return CBOR;
+                }
+            }
+            return JSON;
+        }
+
+        // Reprezentációnként eltérő ETag, hogy a JSON és a CBOR válasz ne validálja egymást
+        public String etag(String etag) {
+            if (this == JSON) {
+                return etag;
+            }
+            return etag.substring(0, etag.length() - 1) + "-" + name().toLowerCase() + "\"";
+        }
+
+        // Tömb a töredékekből, újraszerializálás és köztes másolás nélkül
+        public void writeArray(List<byte[]> fragments, OutputStream out) throws IOException {
+            out.write(arrayStart);
+            for (int i = 0; i < fragments.size(); i++) {
+                if (i > 0 && separator >= 0) {
+                    out.write(separator);
+                }
+                out.write(fragments.get(i));
+            }
+            out.write(arrayEnd);
+        }
+
+        public long arrayLength(List<byte[]> fragments) {
+            long length = 2;
+            if (separator >= 0) {
+                length += Math.max(0, fragments.size() - 1);
+            }
+            for (byte[] fragment : fragments) {
+                length += fragment.length;
+            }
+            return length;
+        }
+    }
+
+    private final Map<Format, ObjectWriter> writers = new EnumMap<>(Format.class);
+    private final Cache<Key, byte[]> fragments;
+
+    public SerializedFragmentCache(ObjectMapper objectMapper,
+                                   MappingJackson2CborHttpMessageConverter cborConverter,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${library.fragment-cache.max-bytes:67108864}") long maxBytes) {
+        writers.put(Format.JSON, objectMapper.writer());
+        writers.put(Format.CBOR, cborConverter.getObjectMapper().writer());
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, byte[] fragment) -> fragment.length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "serialized-fragments");
+    }
+
+    // A kulcsok sorrendjében adja vissza a töredékeket. A hiányzókat a loader csomagonként tölti be;
+    // a betöltés közben törölt entitások kimaradnak, a közben módosultak a friss verziójukkal kerülnek be.
+    public <T> List<byte[]> fragments(List<Key> keys, Function<List<Long>, List<T>> loader, Function<T, Key> keyOf) {
+        byte[][] result = new byte[keys.size()][];
+        List<Long> missingIds = new ArrayList<>();
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result[i] = fragments.getIfPresent(keys.get(i));
+            if (result[i] == null) {
+                missingIds.add(keys.get(i).getId());
+                positions.put(keys.get(i).getId(), i);
+            }
+        }
+        for (int from = 0; from < missingIds.size(); from += LOAD_CHUNK) {
+            List<Long> chunk = missingIds.subList(from, Math.min(from + LOAD_CHUNK, missingIds.size()));
+            for (T entity : loader.apply(chunk)) {
+                Key key = keyOf.apply(entity);
+                byte[] fragment = serialize(key.getFormat(), entity);
+                fragments.put(key, fragment);
+                result[positions.get(key.getId())] = fragment;
+            }
+        }
+
+        List<byte[]> ordered = new ArrayList<>(result.length);
+        for (byte[] fragment : result) {
+            if (fragment != null) {
+                ordered.add(fragment);
+            }
+        }
+        return ordered;
+    }
+
+    private byte[] serialize(Format format, Object entity) {
+        try {
+            return writers.get(format).writeValueAsBytes(entity);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Formátum, entitástípus, azonosító, saját verzió és a beágyazott szülő (könyvnél a szerző) verziója
+    @lombok.Value
+    public static class Key {
+        Format format;
+        Class<?> type;
+        Long id;
+        Long version;
+        Long parentVersion;
+    }
+}
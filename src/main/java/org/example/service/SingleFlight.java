@@ -0,0 +1,116 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.event.CatalogVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Azonos, egyidejű olvasások összevonása: kulcsonként egyszerre egy adatbázis-hívás fut (leader),
+// a közben érkező azonos kérések (followers) megvárják és ugyanazt az eredményt kapják.
+// - A kulcs része a katalógus verzió: egy véglegesített írás után érkező kérés már nem csatlakozik
+//   az írás előtt indult híváshoz, hanem újat indít.
+// - A várakozás korlátos: max-wait után a kérés maga tölti be az adatot.
+// - Tranzakción belül (pl. író műveletben) nincs összevonás, ott a saját persistence context számít.
+// - Entitás nem osztható meg: az a leader persistence contextjéhez tartozik (open-in-view mellett a kérés
+//   végéig). Ilyenkor a followers a copy függvénnyel készült, leválasztott másolatot kapnak, fejenként újat.
+//   Másolat nélkül csak nem módosított DTO eredmény osztható meg.
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long maxWaitNanos;
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(CatalogVersion catalogVersion,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${library.single-flight.max-wait:2s}") Duration maxWait,
+                        MeterRegistry meterRegistry) {
+        this.catalogVersion = catalogVersion;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Csak olvasott (DTO) eredményhez: a followers ugyanazt a példányt kapják
+    public <T> T read(String operation, Object argument, Supplier<T> loader) {
+        return read(operation, argument, loader, UnaryOperator.identity());
+    }
+
+    // A loader csak olvasó tranzakcióban fut; a followers nem foglalnak adatbázis-kapcsolatot várakozás közben.
+    // A leader a saját eredményét kapja, a followers a másolatából készült újabb másolatot.
+    @SuppressWarnings("unchecked")
+    public <T> T read(String operation, Object argument, Supplier<T> loader, UnaryOperator<T> copy) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        Key key = new Key(operation, argument, catalogVersion.current());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            count(operation, "leader");
+            try {
+                T result = readOnlyTransaction.execute(status -> loader.get());
+                flight.complete(result != null ? copy.apply(result) : null);
+                return result;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        try {
+            T shared = (T) existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            count(operation, "shared");
+            return shared != null ? copy.apply(shared) : null;
+        } catch (TimeoutException e) {
+            count(operation, "timeout");
+            return readOnlyTransaction.execute(status -> loader.get());
+        } catch (ExecutionException e) {
+            // A leader hibáját (pl. nem létező könyv) a followers is megkapják
+            count(operation, "shared");
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation, e);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private void count(String operation, String outcome) {
+        meterRegistry.counter("library.single-flight.calls", "operation", operation, "outcome", outcome).increment();
+    }
+
+    @lombok.Value
+    private static class Key {
+        String operation;
+        Object argument;
+        long catalogVersion;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.StorageSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Online pillanatkép a fájl alapú adatbázisról (H2 BACKUP TO): futás közben, konzisztens állapotról készül.
+// Visszaállítás: library.storage.restore-from=<zip> egy üres adatkönyvtárral induló csomóponton.
+@Service
+@ConditionalOnProperty("library.storage.snapshot-dir")
+@Slf4j
+public class StorageSnapshotService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path snapshotDir;
+
+    public StorageSnapshotService(JdbcTemplate jdbcTemplate,
+                                  @Value("${library.storage.snapshot-dir}") String snapshotDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotDir = Paths.get(snapshotDir).toAbsolutePath();
+    }
+
+    public synchronized StorageSnapshot createSnapshot() throws IOException {
+        Files.createDirectories(snapshotDir);
+        Path target = snapshotDir.resolve("librarydb-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".zip");
+        long start = System.currentTimeMillis();
+        jdbcTemplate.execute("BACKUP TO '" + target.toString().replace("'", "''") + "'");
+        long duration = System.currentTimeMillis() - start;
+        long size = Files.size(target);
+        log.info("Adatbázis pillanatkép kész: {} ({} bájt, {} ms)", target, size, duration);
+        return new StorageSnapshot(target.toString(), size, duration);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// A végpont terhelési osztálya: a library.admission.classes.<név>.* korlátok vonatkoznak rá.
+// Az annotáció nélküli (olcsó) végpontokat az admission control nem korlátozza.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+    String value();
+}
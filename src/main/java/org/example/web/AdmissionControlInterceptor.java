@@ -0,0 +1,175 @@
+package org.example.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Admission control a drága (@Admission jelölésű) végpontok előtt: kliensenkénti és osztályonkénti
+// token bucket, valamint egyidejűségi korlát. A többletet várakoztatás nélkül, rögtön 429-cel és
+// Retry-After fejléccel utasítjuk el, így a kapcsolat- és szálkészletet nem foglalják le, és az olcsó
+// végpontok (pl. ISBN keresés) nem állnak be mögéjük a sorba.
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    // Az elfogadott kérés egyidejűségi engedélye; a kérés végén (aszinkron kérésnél az utolsó dispatch után) adjuk vissza
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final AdmissionProperties properties;
+    private final LongSupplier clock;
+    private final Map<String, Limiter> limiters = new HashMap<>();
+
+    public AdmissionControlInterceptor(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    AdmissionControlInterceptor(AdmissionProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        properties.getClasses().forEach((name, policy) -> limiters.put(name, new Limiter(name, policy, meterRegistry)));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // Az aszinkron (folyam) válaszok további dispatch-ei már elfogadott kéréshez tartoznak
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        Admission admission = ((HandlerMethod) handler).getMethodAnnotation(Admission.class);
+        Limiter limiter = admission != null ? limiters.get(admission.value()) : null;
+        if (limiter == null) {
+            return true;
+        }
+
+        // Az egyidejűségi engedély az első (visszaadható); egy későbbi elutasításnál a már lefoglalt engedélyt
+        // és kliens tokent visszaadjuk, hogy az elutasított kérés ne fogyassza a keretet
+        Semaphore permit = null;
+        if (limiter.concurrency != null) {
+            if (!limiter.concurrency.tryAcquire()) {
+                return reject(response, limiter.rejectedConcurrency, TimeUnit.SECONDS.toNanos(1));
+            }
+            permit = limiter.concurrency;
+        }
+        long now = clock.getAsLong();
+        TokenBucket client = null;
+        if (limiter.clients != null) {
+            client = limiter.clients.get(clientId(request), id -> limiter.newClientBucket(now));
+            long wait = client.tryAcquire(now);
+            if (wait > 0) {
+                release(permit);
+                return reject(response, limiter.rejectedClientRate, wait);
+            }
+        }
+        if (limiter.bucket != null) {
+            long wait = limiter.bucket.tryAcquire(now);
+            if (wait > 0) {
+                if (client != null) {
+                    client.refund();
+                }
+                release(permit);
+                return reject(response, limiter.rejectedRate, wait);
+            }
+        }
+        if (permit != null) {
+            request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        }
+        limiter.admitted.increment();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            ((Semaphore) permit).release();
+        }
+    }
+
+    private static void release(Semaphore permit) {
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    // A kliens a távoli cím (proxy mögött a server.forward-headers-strategy szerint, a megbízható proxy által
+    // továbbított cím). A kliens által küldött azonosító fejléc nem lehet kulcs: kérésenként új értékkel
+    // mindig új, teli bucketet kapna, és csak az osztálykeret korlátozná, a többi kliens rovására.
+    private static String clientId(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private static boolean reject(HttpServletResponse response, Counter rejected, long waitNanos) throws IOException {
+        rejected.increment();
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Túl sok kérés, próbálja újra " + retryAfter + " másodperc múlva");
+        return false;
+    }
+
+    // Egy terhelési osztály korlátai és metrikái (library.admission.requests{class, outcome, reason})
+    private final class Limiter {
+
+        private final AdmissionProperties.Policy policy;
+        private final TokenBucket bucket;
+        private final Cache<String, TokenBucket> clients;
+        private final Semaphore concurrency;
+        private final Counter admitted;
+        private final Counter rejectedRate;
+        private final Counter rejectedClientRate;
+        private final Counter rejectedConcurrency;
+
+        Limiter(String name, AdmissionProperties.Policy policy, MeterRegistry meterRegistry) {
+            this.policy = policy;
+            this.bucket = policy.getRate() > 0 ? new TokenBucket(policy.getRate(), policy.getBurst(), clock.getAsLong()) : null;
+            this.clients = policy.getClientRate() > 0
+                    ? Caffeine.newBuilder()
+                            .expireAfterAccess(properties.getClientIdle())
+                            .maximumSize(properties.getMaxClients())
+                            .build()
+                    : null;
+            this.concurrency = policy.getMaxConcurrent() > 0 ? new Semaphore(policy.getMaxConcurrent()) : null;
+            this.admitted = counter(meterRegistry, name, "admitted", "none");
+            this.rejectedRate = counter(meterRegistry, name, "rejected", "rate");
+            this.rejectedClientRate = counter(meterRegistry, name, "rejected", "client-rate");
+            this.rejectedConcurrency = counter(meterRegistry, name, "rejected", "concurrency");
+            if (concurrency != null) {
+                Gauge.builder("library.admission.in-flight", concurrency,
+                                permits -> policy.getMaxConcurrent() - permits.availablePermits())
+                        .tag("class", name)
+                        .register(meterRegistry);
+            }
+        }
+
+        TokenBucket newClientBucket(long now) {
+            return new TokenBucket(policy.getClientRate(), policy.getClientBurst(), now);
+        }
+
+        private Counter counter(MeterRegistry meterRegistry, String name, String outcome, String reason) {
+            return Counter.builder("library.admission.requests")
+                    .tag("class", name)
+                    .tag("outcome", outcome)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
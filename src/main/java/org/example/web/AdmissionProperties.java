@@ -0,0 +1,32 @@
+package org.example.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// library.admission.*: terhelési osztályonkénti korlátok; a 0 érték korlátlant jelent
+@Data
+@ConfigurationProperties("library.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+    // Ennyi tétlenség után a kliens token bucketje felszabadul
+    private Duration clientIdle = Duration.ofMinutes(10);
+    private int maxClients = 100_000;
+    private Map<String, Policy> classes = new HashMap<>();
+
+    @Data
+    public static class Policy {
+        // Az osztály összes végpontjára együtt, kérés/másodperc és löket
+        private double rate;
+        private int burst;
+        // Kliensenként
+        private double clientRate;
+        private int clientBurst;
+        // Egyidejűleg futó kérések maximuma
+        private int maxConcurrent;
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.web;
+
+import org.example.jdbc.SqlMetrics;
+import org.example.jdbc.StatementCounter;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+// Kérésenkénti SQL statisztika: X-SQL-Statements, X-SQL-Rows és X-SQL-Time-Ms válaszfejléc, valamint
+// library.sql.* metrikák az URI minta szerint. A fejlécek a törzs írásának kezdetekor kerülnek ki, így a
+// szerializálás közbeni (lusta betöltés) utasításokat csak a metrika tartalmazza.
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final SqlMetrics sqlMetrics;
+
+    public SqlStatisticsFilter(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.Scope scope = StatementCounter.open(request.getMethod() + " " + request.getRequestURI());
+        StatisticsResponse wrapped = new StatisticsResponse(response, scope);
+        try {
+            chain.doFilter(request, wrapped);
+            // Törzs nélküli válasz (pl. 204, 304)
+            if (!request.isAsyncStarted()) {
+                wrapped.writeHeaders();
+            }
+        } finally {
+            wrapped.done = true;
+            scope.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sqlMetrics.record("request", request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN"), scope);
+        }
+    }
+
+    private static final class StatisticsResponse extends HttpServletResponseWrapper {
+
+        private final StatementCounter.Scope scope;
+        private boolean headersWritten;
+        // A szűrő után (aszinkron feldolgozás) már más szál írhat; ekkor fejlécet nem adunk
+        private volatile boolean done;
+
+        StatisticsResponse(HttpServletResponse response, StatementCounter.Scope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        void writeHeaders() {
+            if (headersWritten || done || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(scope.getStatements()));
+            setHeader(ROWS_HEADER, Long.toString(scope.getRows()));
+            setHeader(TIME_HEADER, Long.toString(scope.getTime().toMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+    }
+}
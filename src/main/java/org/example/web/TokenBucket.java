@@ -0,0 +1,37 @@
+package org.example.web;
+
+// Token bucket: másodpercenként rate token töltődik vissza, legfeljebb capacity gyűlhet össze (löket)
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, int capacity, long now) {
+        this.tokensPerNano = ratePerSecond / NANOS_PER_SECOND;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.lastRefill = now;
+    }
+
+    // 0, ha kaptunk tokent; egyébként ennyi nanoszekundum múlva lesz a következő
+    public synchronized long tryAcquire(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    // Egy korábban kiadott token visszaadása (a kérést végül máshol utasították el)
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
@@ -0,0 +1,38 @@
+-- Éles (prod) profil sémája: csak akkor jön létre, ha még nincs; a Hibernate ezt validálja
+CREATE SEQUENCE IF NOT EXISTS author_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS book_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS author (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    book_count INT DEFAULT 0 NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS book (
+    id BIGINT NOT NULL,
+    isbn VARCHAR(255),
+    title VARCHAR(255) NOT NULL,
+    version BIGINT,
+    author_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_book_isbn UNIQUE (isbn),
+    CONSTRAINT fk_book_author FOREIGN KEY (author_id) REFERENCES author (id)
+);
+
+-- Egyszer lefutó adatmigrációk nyilvántartása (a séma utasításai minden induláskor futnak)
+CREATE TABLE IF NOT EXISTS schema_migration (
+    id VARCHAR(100) NOT NULL,
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- A book_count előtt létrehozott adatbázisokhoz: az oszlop 0-val jön létre, a valódi értékeket
+-- egyszer, a migráció első futásakor töltjük fel (újra futtatva nem írja felül a számlálót)
+ALTER TABLE author ADD COLUMN IF NOT EXISTS book_count INT DEFAULT 0 NOT NULL;
+UPDATE author a SET book_count = (SELECT COUNT(*) FROM book b WHERE b.author_id = a.id)
+    WHERE NOT EXISTS (SELECT 1 FROM schema_migration WHERE id = 'author-book-count');
+MERGE INTO schema_migration (id) KEY (id) VALUES ('author-book-count');
+
+CREATE INDEX IF NOT EXISTS idx_author_name ON author (name);
@@ -0,0 +1,52 @@
+package org.example.config;
+
+import org.example.model.Author;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "library.seed.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class DataLoaderIT {
+
+    private static final long SEED_TIMEOUT_MILLIS = 30_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    public void testSeedingReplacesCatalogAndThenReportsReady() throws Exception {
+        // Given: a háttérben futó betöltés befejeződik
+        long deadline = System.currentTimeMillis() + SEED_TIMEOUT_MILLIS;
+        while (mockMvc.perform(get("/actuator/health/readiness")).andReturn().getResponse().getStatus() != 200) {
+            assertTrue(System.currentTimeMillis() < deadline, "Seeding did not finish in time");
+            Thread.sleep(100);
+        }
+
+        // When & Then
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        assertEquals(2, authorRepository.count());
+        assertEquals(1, bookRepository.count());
+        assertTrue(authorRepository.findAll().stream().map(Author::getName).anyMatch("Stephen King"::equals));
+        assertTrue(bookRepository.findByIsbn("963-8386-87-0").isPresent());
+    }
+}
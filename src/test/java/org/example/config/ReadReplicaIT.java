@@ -0,0 +1,103 @@
+package org.example.config;
+
+import org.example.model.Author;
+import org.example.service.AuthorService;
+import org.example.service.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Két helyi H2 példány: az elsődlegesen a Hibernate hozza létre a sémát, a replikán az éles séma szkript
+@SpringBootTest(properties = {
+        "library.datasource.replica.jdbc-url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;"
+                + "INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'",
+        "library.datasource.replica.username=sa",
+        "library.datasource.replica-max-lag=0s"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadReplicaIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.update("DELETE FROM book");
+            database.update("DELETE FROM author");
+        }
+    }
+
+    @Test
+    public void testReadsGoToReplicaAndWritesToPrimary() {
+        // When: írás a szolgáltatáson keresztül
+        Author author = new Author();
+        author.setName("Primary Author");
+        libraryService.createAuthor(author);
+
+        // Then: az elsődlegesbe került, a (még üres) replika nem látja
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM author", Integer.class));
+        assertTrue(authorService.findAllAuthors().isEmpty());
+
+        // A replikára "átért" sort a csak olvasó szolgáltatás már látja
+        replica.update("INSERT INTO author (id, version, name, book_count) VALUES (1000, 0, 'Replicated Author', 0)");
+        List<Author> authors = authorService.findAllAuthors();
+        assertEquals(1, authors.size());
+        assertEquals("Replicated Author", authors.get(0).getName());
+    }
+
+    @Test
+    public void testWriteAfterReadInTheSameRequestGoesToPrimary() throws Exception {
+        // Given: a szerző mindkét adatbázisban megvan, a cache-ben nincs (a beolvasás adatbázishoz megy)
+        primary.update("INSERT INTO author (id, version, name, book_count) VALUES (2000, 0, 'Old Name', 0)");
+        replica.update("INSERT INTO author (id, version, name, book_count) VALUES (2000, 0, 'Old Name', 0)");
+        entityManagerFactory.getCache().evictAll();
+
+        // When: a PUT egy csak olvasó findById után ment, ugyanabban a kérésben (open-in-view EntityManager)
+        mockMvc.perform(put("/api/authors/{id}", 2000)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"New Name\"}"))
+                .andExpect(status().isOk());
+
+        // Then: az UPDATE az elsődlegesre ment, nem a replikára
+        assertEquals("New Name", primary.queryForObject("SELECT name FROM author WHERE id = 2000", String.class));
+        assertEquals("Old Name", replica.queryForObject("SELECT name FROM author WHERE id = 2000", String.class));
+    }
+}
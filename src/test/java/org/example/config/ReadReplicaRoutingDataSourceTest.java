@@ -0,0 +1,64 @@
+package org.example.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        // Két külön H2 példány; a DATABASE() függvény mutatja, melyikre került a kapcsolat
+        primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUseReplica_WritesPrimary() {
+        // Given
+        DataSource routing = routing(Duration.ZERO);
+
+        // When & Then
+        assertEquals("ROUTING-REPLICA", database(routing, true));
+        assertEquals("ROUTING-PRIMARY", database(routing, false));
+        assertEquals("ROUTING-REPLICA", database(routing, true));
+        // Tranzakción kívül mindig az elsődleges
+        assertEquals("ROUTING-PRIMARY", new JdbcTemplate(routing).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    @Test
+    void readsAfterWrite_ShouldUsePrimary_WithinMaxLag() {
+        // Given
+        DataSource routing = routing(Duration.ofHours(1));
+        assertEquals("ROUTING-REPLICA", database(routing, true));
+
+        // When: írás után az ablakon belül
+        database(routing, false);
+
+        // Then
+        assertEquals("ROUTING-PRIMARY", database(routing, true));
+    }
+
+    private DataSource routing(Duration maxLag) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica, maxLag));
+    }
+
+    private static String database(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A prod profil sémaszkriptje (db/schema.sql) minden induláskor lefut: meglévő adatbázison is helyes kell maradjon
+class SchemaMigrationTest {
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:schema-migration;DB_CLOSE_DELAY=-1");
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void schemaScript_ShouldBackfillBookCounts_OnDatabaseCreatedBeforeBookCount() throws Exception {
+        // Given: a book_count oszlop előtti séma, két szerző három könyvvel
+        execute("CREATE TABLE author (id BIGINT NOT NULL PRIMARY KEY, name VARCHAR(255) NOT NULL, version BIGINT)");
+        execute("CREATE TABLE book (id BIGINT NOT NULL PRIMARY KEY, isbn VARCHAR(255), title VARCHAR(255) NOT NULL, "
+                + "version BIGINT, author_id BIGINT REFERENCES author (id))");
+        execute("INSERT INTO author (id, name) VALUES (1, 'First'), (2, 'Second'), (3, 'Third')");
+        execute("INSERT INTO book (id, title, author_id) VALUES (1, 'A', 1), (2, 'B', 1), (3, 'C', 2)");
+
+        // When
+        runSchemaScript();
+
+        // Then
+        assertEquals(2, bookCount(1));
+        assertEquals(1, bookCount(2));
+        assertEquals(0, bookCount(3));
+    }
+
+    @Test
+    void schemaScript_ShouldBackfillOnlyOnce() throws Exception {
+        // Given
+        runSchemaScript();
+        execute("INSERT INTO author (id, name, book_count) VALUES (1, 'First', 0)");
+        execute("INSERT INTO book (id, title, author_id) VALUES (1, 'A', 1)");
+        // Az alkalmazás által karbantartott érték (itt szándékosan eltér a könyvek számától)
+        execute("UPDATE author SET book_count = 5 WHERE id = 1");
+
+        // When: újraindítás
+        runSchemaScript();
+
+        // Then: a számlálót nem számolja újra
+        assertEquals(5, bookCount(1));
+    }
+
+    private void runSchemaScript() throws Exception {
+        execute("RUNSCRIPT FROM 'classpath:db/schema.sql'");
+    }
+
+    private int bookCount(long authorId) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT book_count FROM author WHERE id = " + authorId)) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
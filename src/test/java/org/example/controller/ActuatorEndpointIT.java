@@ -0,0 +1,42 @@
+package org.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+public class ActuatorEndpointIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testPrometheusEndpoint_ExposesEndpointServiceHibernateAndPoolMetrics() throws Exception {
+        // Given - egy kérés, hogy legyen végpont és szolgáltatás metrika
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("uri=\"/api/books\"")))
+                .andExpect(content().string(containsString("library_service_seconds_bucket")))
+                .andExpect(content().string(containsString("method=\"findAllBookFragments\"")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("library_cache_gets_total")))
+                .andExpect(content().string(containsString("library_admission_requests_total{application=\"konyvtar\",class=\"scan\",outcome=\"admitted\",reason=\"none\",} 1.0")));
+    }
+}
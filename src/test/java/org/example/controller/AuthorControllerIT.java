@@ -3,20 +3,26 @@ package org.example.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.model.Author;
 import org.example.repository.AuthorRepository;
+import org.example.web.SqlStatisticsFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
 public class AuthorControllerIT {
@@ -70,11 +76,13 @@ public class AuthorControllerIT {
         // Given
         Author author = new Author();
         author.setName("Stephen King");
-        Author savedAuthor = authorRepository.save(author);
+        // Kiírjuk, hogy a kérés utasításai között ne szerepeljen
+        Author savedAuthor = authorRepository.saveAndFlush(author);
 
         // When & Then
         mockMvc.perform(get("/api/authors/{id}", savedAuthor.getId()))
                 .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(1))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.name").value("Stephen King"))
                 .andExpect(jsonPath("$.id").value(savedAuthor.getId()));
@@ -172,11 +180,13 @@ public class AuthorControllerIT {
         // Given
         Author author = new Author();
         author.setName("Ray Bradbury");
-        Author savedAuthor = authorRepository.save(author);
+        // Kiírjuk, hogy a kérés utasításai között ne szerepeljen
+        Author savedAuthor = authorRepository.saveAndFlush(author);
 
-        // When & Then
+        // When & Then: a könyvek és a szerző törlése halmazalapú, a könyvek betöltése nélkül
         mockMvc.perform(delete("/api/authors/{id}", savedAuthor.getId()))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(2));
 
         // Ellenőrizzük, hogy valóban törölve lett
         mockMvc.perform(get("/api/authors/{id}", savedAuthor.getId()))
@@ -205,7 +215,7 @@ public class AuthorControllerIT {
         mockMvc.perform(post("/api/authors")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(authorJson))
-                .andExpect(status().isOk()); // Itt lehet hogy 400-at kellene várni validáció esetén
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -276,4 +286,14 @@ public class AuthorControllerIT {
                 .andExpectAll(jsonPath("$", hasSize(4)))
                 .andExpect(jsonPath("$[*].name", containsInAnyOrder(authorNames)));
     }
-}
\ No newline at end of file
+
+    // Utasításkeret: a szolgáltatás és a szerializálás együtt legfeljebb ennyi SQL utasítást futtathat
+    private static ResultMatcher sqlStatementsAtMost(int max) {
+        return result -> {
+            String statements = result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER);
+            assertNotNull(statements, "Hiányzó " + SqlStatisticsFilter.STATEMENTS_HEADER + " fejléc");
+            assertTrue(Integer.parseInt(statements) <= max,
+                    "Legfeljebb " + max + " SQL utasítás várt, de " + statements + " futott");
+        };
+    }
+}
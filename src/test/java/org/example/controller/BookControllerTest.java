@@ -1,23 +1,47 @@
 package org.example.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.example.dto.BookPatch;
+import org.example.dto.BookQuery;
+import org.example.dto.BookSearchHit;
+import org.example.dto.BookSearchResult;
+import org.example.dto.BookSummary;
+import org.example.dto.CursorPage;
+import org.example.dto.PageResult;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogVersion;
 import org.example.model.Book;
+import org.example.service.BookSearchService;
 import org.example.service.BookService;
+import org.example.service.BookWriteBehindService;
+import org.example.service.BulkIngestionService;
+import org.example.service.SerializedFragmentCache.Format;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookController.class)
+@Import(CatalogVersion.class)
 class BookControllerTest {
 
     @Autowired
@@ -26,9 +50,21 @@ class BookControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookSearchService bookSearchService;
+
+    @MockBean
+    private BulkIngestionService bulkIngestionService;
+
+    @MockBean
+    private BookWriteBehindService bookWriteBehindService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     @Test
     void getAllBooks_ShouldReturnBooks() throws Exception {
         // Given
@@ -36,7 +72,7 @@ class BookControllerTest {
         book.setId(1L);
         book.setTitle("Test Book");
 
-        when(bookService.findAllBooks()).thenReturn(Arrays.asList(book));
+        when(bookService.findAllBookFragments(Format.JSON)).thenReturn(Arrays.asList(objectMapper.writeValueAsBytes(book)));
 
         // When & Then
         mockMvc.perform(get("/api/books"))
@@ -69,4 +105,230 @@ class BookControllerTest {
         mockMvc.perform(get("/api/books/1"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBooksPage_ShouldReturnPageWithCursor() throws Exception {
+        // Given
+        Book book = new Book();
+        book.setId(42L);
+        book.setTitle("Test Book");
+
+        when(bookService.findBooksAfter(10L, 1)).thenReturn(new CursorPage<>(Collections.singletonList(book), 42L));
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("limit", "1").param("after", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.nextCursor").value(42));
+    }
+
+    @Test
+    void getBooksPage_ShouldClampLimit() throws Exception {
+        // Given
+        when(bookService.findBooksAfter(0L, BookController.MAX_PAGE_LIMIT))
+                .thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("limit", "1000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+        verify(bookService).findBooksAfter(0L, BookController.MAX_PAGE_LIMIT);
+    }
+
+    @Test
+    void searchBooks_ShouldReturnRankedHits() throws Exception {
+        // Given
+        BookSummary summary = new BookSummary(1L, "Test Book", "123", 2L, "Test Author");
+        when(bookSearchService.search("test", 0, 20))
+                .thenReturn(new BookSearchResult(1, 0, 20, Collections.singletonList(new BookSearchHit(summary, 3.0))));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/search").param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hits[0].book.title").value("Test Book"))
+                .andExpect(jsonPath("$.hits[0].score").value(3.0));
+    }
+
+    @Test
+    void queryBooks_ShouldPassCriteriaSortAndPage() throws Exception {
+        // Given
+        BookSummary summary = new BookSummary(1L, "Test Book", "123", 2L, "Test Author");
+        when(bookService.queryBooks(new BookQuery("test", 2L, null, "12"),
+                PageRequest.of(1, 5, Sort.by(Sort.Order.desc("title")))))
+                .thenReturn(new PageResult<>(Collections.singletonList(summary), 1, 5, 6));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/query")
+                        .param("title", "test")
+                        .param("authorId", "2")
+                        .param("isbn", "12")
+                        .param("sort", "title,desc")
+                        .param("page", "1")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(6))
+                .andExpect(jsonPath("$.items[0].title").value("Test Book"));
+    }
+
+    @Test
+    void getAllBooks_ShouldReturn304_WhenCatalogUnchanged() throws Exception {
+        // Given
+        when(bookService.findAllBookFragments(Format.JSON)).thenReturn(Collections.emptyList());
+        String etag = mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(bookService, times(1)).findAllBookFragments(Format.JSON);
+    }
+
+    @Test
+    void getAllBooks_ShouldReturnFreshBody_AfterCatalogChange() throws Exception {
+        // Given
+        when(bookService.findAllBookFragments(Format.JSON)).thenReturn(Collections.emptyList());
+        String etag = mockMvc.perform(get("/api/books"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        catalogVersion.onCatalogChange(CatalogChangeEvent.bookDeleted(1L, 0L));
+
+        // When & Then
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void getBookById_ShouldReturn304_WithoutLoadingBook_WhenVersionMatches() throws Exception {
+        // Given
+        when(bookService.findBookETag(1L)).thenReturn(Optional.of("\"book-1-0-0\""));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "\"book-1-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"book-1-0-0\""));
+        verify(bookService, never()).findBookById(1L);
+    }
+
+    @Test
+    void getBookByIsbn_ShouldReturnBookFromIndex() throws Exception {
+        // Given
+        Book book = new Book();
+        book.setId(1L);
+        book.setTitle("Test Book");
+        when(bookSearchService.findByIsbn("978-963-07-8384-0")).thenReturn(Optional.of(book));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/isbn/978-963-07-8384-0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Test Book"));
+    }
+
+    @Test
+    void getBookByIsbn_ShouldReturn404_WhenUnknown() throws Exception {
+        // Given
+        when(bookSearchService.findByIsbn("123")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/books/isbn/123"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getBookById_ShouldNegotiateCbor() throws Exception {
+        // Given
+        Book book = new Book();
+        book.setId(1L);
+        book.setTitle("Test Book");
+        when(bookService.findBookById(1L)).thenReturn(Optional.of(book));
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/books/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertEquals("Test Book", new CBORMapper().readTree(body).get("title").asText());
+    }
+
+    @Test
+    void createBook_ShouldAcceptCborBody() throws Exception {
+        // Given
+        Book book = new Book();
+        book.setTitle("Cbor Book");
+        when(bookService.saveBook(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When & Then
+        mockMvc.perform(post("/api/books")
+                        .header(HttpHeaders.CONTENT_TYPE, "application/cbor")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(new CBORMapper().writeValueAsBytes(book)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title").value("Cbor Book"));
+    }
+
+    @Test
+    void createBook_ShouldReturnBadRequest_WhenIdIsGiven() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":1,\"title\":\"Other Book\"}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void getAllBooks_ShouldWriteCborFragments_WhenCborAccepted() throws Exception {
+        // Given
+        Book book = new Book();
+        book.setId(1L);
+        book.setTitle("Test Book");
+        when(bookService.findAllBookFragments(Format.CBOR))
+                .thenReturn(Collections.singletonList(new CBORMapper().writeValueAsBytes(book)));
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertEquals("Test Book", new CBORMapper().readTree(body).get(0).get("title").asText());
+    }
+
+    @Test
+    void patchBook_ShouldPassOnlyGivenFields() throws Exception {
+        // Given
+        when(bookService.patchBook(eq(1L), any(BookPatch.class))).thenReturn(new BookPatch(4L, "New Title", "isbn-1"));
+
+        // When & Then
+        mockMvc.perform(patch("/api/books/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":3,\"title\":\"New Title\",\"authorId\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4))
+                .andExpect(jsonPath("$.title").value("New Title"))
+                .andExpect(jsonPath("$.unsupportedFields").doesNotExist());
+        verify(bookService).patchBook(eq(1L), argThat(patch -> patch.getVersion() == 3L
+                && patch.getIsbn() == null
+                && patch.getUnsupportedFields().contains("authorId")));
+    }
+
+    @Test
+    void patchBook_ShouldReturn409_WhenVersionIsStale() throws Exception {
+        // Given
+        when(bookService.patchBook(eq(1L), any(BookPatch.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        // When & Then
+        mockMvc.perform(patch("/api/books/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":1,\"title\":\"New Title\"}"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.controller;
+
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.service.LibraryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ChangeFeedIT {
+
+    private static final Pattern BOOK_CREATED_ID = Pattern.compile(
+            "id:(\\S+)\nevent:change\ndata:\\{\"type\":\"BOOK\",\"id\":(\\d+),\"operation\":\"CREATE\",\"version\":0}");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Test
+    void changes_ShouldStreamCommittedChangesAndResumeFromLastEventId() throws Exception {
+        // Given: élő feliratkozás
+        MvcResult live = mockMvc.perform(get("/api/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        Author author = new Author();
+        author.setName("Feed Author");
+        author = libraryService.createAuthor(author);
+        Book book = new Book();
+        book.setTitle("Feed Book");
+        book.setIsbn("555-1");
+        book.setAuthor(author);
+        book = libraryService.createBook(book);
+
+        // Then: a könyv létrehozása a verziójával együtt megérkezik
+        Matcher created = await(live, BOOK_CREATED_ID);
+        assertEquals(book.getId().toString(), created.group(2));
+        assertTrue(live.getResponse().getContentAsString()
+                .contains("{\"type\":\"AUTHOR\",\"id\":" + author.getId() + ",\"operation\":\"CREATE\",\"version\":0}"));
+
+        // When: visszacsatlakozás a könyv eseménye előtti pozícióról
+        String bookEventId = created.group(1);
+        String authorEventId = bookEventId.substring(0, bookEventId.lastIndexOf('-') + 1)
+                + (Long.parseLong(bookEventId.substring(bookEventId.lastIndexOf('-') + 1)) - 1);
+        MvcResult resumed = mockMvc.perform(get("/api/changes").header("Last-Event-ID", authorEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then: a kimaradt esemény újra megjön, reset nélkül
+        assertEquals(bookEventId, await(resumed, BOOK_CREATED_ID).group(1));
+        assertFalse(resumed.getResponse().getContentAsString().contains("event:reset"));
+
+        // Ismeretlen pozíció: újraszinkronizálás
+        MvcResult unknown = mockMvc.perform(get("/api/changes").header("Last-Event-ID", "regi-42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        await(unknown, Pattern.compile("event:reset\ndata:\\{\"type\":\"CATALOG\""));
+    }
+
+    private static Matcher await(MvcResult result, Pattern pattern) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (true) {
+            Matcher matcher = pattern.matcher(result.getResponse().getContentAsString());
+            if (matcher.find()) {
+                return matcher;
+            }
+            if (System.nanoTime() > deadline) {
+                fail("Nem érkezett meg: " + pattern + "\n" + result.getResponse().getContentAsString());
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Author;
+import org.example.repository.BookRepository;
+import org.example.service.LibraryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "library.write-behind.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class WriteBehindIT {
+
+    // Saját mentési fájl: a munkakönyvtárban maradt fájlt a többi teszt kontextus induláskor visszajátszaná
+    @TempDir
+    static Path spillDir;
+
+    @DynamicPropertySource
+    static void spillFile(DynamicPropertyRegistry registry) {
+        registry.add("library.write-behind.spill-file", () -> spillDir.resolve("write-behind-spill.ndjson").toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createBook_WithRespondAsync_ShouldAcceptAndWriteBehind() throws Exception {
+        // Given
+        Author author = new Author();
+        author.setName("Async Author");
+        author = libraryService.createAuthor(author);
+        String body = "{\"title\":\"Async Book\",\"isbn\":\"777-1\",\"author\":{\"id\":" + author.getId() + "}}";
+
+        // When: 202 és az állapot címe
+        MvcResult accepted = mockMvc.perform(post("/api/books")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.state").exists())
+                .andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+
+        // Then: a könyv a háttérben létrejön
+        JsonNode status = awaitDone(location);
+        assertEquals("CREATED", status.get("state").asText());
+        long bookId = status.get("bookId").asLong();
+        assertEquals("Async Book", bookRepository.findById(bookId).orElseThrow().getTitle());
+
+        // Ugyanaz az ISBN még egyszer: a batch elutasítja
+        String duplicate = mockMvc.perform(post("/api/books")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        assertEquals("REJECTED", awaitDone(duplicate).get("state").asText());
+
+        mockMvc.perform(get("/api/books/pending/nincs"))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitDone(String location) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            String content = mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode status = objectMapper.readTree(content);
+            if (!"QUEUED".equals(status.get("state").asText())) {
+                return status;
+            }
+            assertTrue(System.nanoTime() < deadline, "Időtúllépés: " + content);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.example.service.BulkIngestionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"library.import.chunk-size=3", "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+@Slf4j
+public class CatalogImportServiceIT {
+
+    private static final int BENCHMARK_ROWS = 20000;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private BulkIngestionService bulkIngestionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testImportCsv_DedupesAuthorsAndRejectsTakenIsbns() {
+        // Given
+        Author existing = new Author();
+        existing.setName("Jókai Mór");
+        existing = authorRepository.save(existing);
+        Book taken = new Book();
+        taken.setTitle("Taken");
+        taken.setIsbn("isbn-taken");
+        taken.setAuthor(existing);
+        bookRepository.save(taken);
+
+        String csv = "title,isbn,author\n"
+                + "Az arany ember,isbn-1,Jókai Mór\n"
+                + "Egri csillagok,isbn-2,Gárdonyi Géza\n"
+                + "A láthatatlan ember,isbn-3,Gárdonyi Géza\n"
+                + "Foglalt,isbn-taken,Jókai Mór\n"
+                + "Duplikált,isbn-2,Gárdonyi Géza\n"
+                + ",,Szabó Magda\n"
+                + "Szerző nélkül,isbn-4,\n";
+        ImportJob job = new ImportJob(ImportFormat.CSV, 0);
+
+        // When
+        catalogImportService.run(job, stream(csv), committed -> { });
+
+        // Then
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(7, job.getCommittedRecords().get());
+        assertEquals(3, job.getBooksCreated().get());
+        assertEquals(2, job.getAuthorsCreated().get());
+        assertEquals(3, job.getRejected().get());
+        assertTrue(job.getRejections().contains("record 4: Book already exists with isbn: isbn-taken"));
+        assertTrue(job.getRejections().contains("record 5: Book already exists with isbn: isbn-2"));
+        assertEquals(3, authorRepository.count());
+        assertEquals(4, bookRepository.count());
+        assertEquals(2, bookRepository.findByAuthorId(existing.getId()).size());
+    }
+
+    @Test
+    public void testImportNdjson_ResumesFromCheckpoint() {
+        // Given
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 7; i++) {
+            ndjson.append("{\"title\":\"Book ").append(i).append("\",\"isbn\":\"nd-").append(i)
+                    .append("\",\"author\":\"Author\",\"extra\":true}\n");
+        }
+        List<Long> checkpoints = new ArrayList<>();
+
+        // When: az első 3 rekordot egy korábbi futás már feldolgozta
+        ImportJob job = new ImportJob(ImportFormat.NDJSON, 3);
+        catalogImportService.run(job, stream(ndjson.toString()), checkpoints::add);
+
+        // Then
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(List.of(6L, 7L), checkpoints);
+        assertEquals(4, bookRepository.count());
+        assertTrue(bookRepository.findByIsbn("nd-3").isEmpty());
+        assertTrue(bookRepository.findByIsbn("nd-4").isPresent());
+    }
+
+    @Test
+    public void testImportNdjson_FailsOnMalformedInputAfterLastCheckpoint() {
+        // Given
+        String ndjson = "{\"title\":\"A\",\"author\":\"X\"}\n{\"title\":\"B\",\"author\":\"X\"}\n"
+                + "{\"title\":\"C\",\"author\":\"X\"}\n{\"title\": broken\n";
+        ImportJob job = new ImportJob(ImportFormat.NDJSON, 0);
+
+        // When
+        catalogImportService.run(job, stream(ndjson), committed -> { });
+
+        // Then
+        assertEquals(ImportJob.State.FAILED, job.getState());
+        assertEquals(3, job.getCommittedRecords().get());
+        assertEquals(3, bookRepository.count());
+    }
+
+    @Test
+    public void testImportThroughput() {
+        // Given
+        StringBuilder csv = new StringBuilder("title,isbn,author\n");
+        for (int i = 0; i < BENCHMARK_ROWS; i++) {
+            csv.append("Book ").append(i).append(",bench-").append(i).append(",Author ").append(i % 500).append('\n');
+        }
+        // A teszt kontextus apró chunkjai helyett az alapértelmezett méret
+        CatalogImportService service = new CatalogImportService(bulkIngestionService, authorRepository, objectMapper,
+                5000, 200000, 10000);
+        ImportJob job = new ImportJob(ImportFormat.CSV, 0);
+
+        // When
+        service.run(job, stream(csv.toString()), committed -> { });
+
+        // Then
+        log.info("Katalógus import: {} rekord, {} rekord/s", BENCHMARK_ROWS, job.getRecordsPerSecond());
+        assertEquals(BENCHMARK_ROWS, job.getBooksCreated().get());
+        assertEquals(500, job.getAuthorsCreated().get());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.BulkAuthorRequest;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkItemResult;
+import org.example.dto.BulkResult;
+import org.example.model.Author;
+import org.example.repository.AuthorRepository;
+import org.example.service.BulkIngestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+
+    @Mock
+    private BulkIngestionService bulkIngestionService;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    private CatalogImportService catalogImportService;
+
+    @BeforeEach
+    void setUp() {
+        catalogImportService = new CatalogImportService(bulkIngestionService, authorRepository, new ObjectMapper(),
+                2, 100, 10000);
+    }
+
+    @Test
+    void run_ShouldResolveAuthorsOncePerNameAndCreateMissingOnes() {
+        // Given
+        Author existing = new Author();
+        existing.setId(1L);
+        existing.setName("Jókai Mór");
+        when(authorRepository.findByNameIn(any())).thenReturn(List.of(existing));
+        when(bulkIngestionService.createAuthors(List.of(new BulkAuthorRequest("Gárdonyi Géza"))))
+                .thenReturn(BulkResult.of(List.of(BulkItemResult.created(0, 2L))));
+        when(bulkIngestionService.createBooks(any()))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)));
+        String ndjson = "{\"title\":\"A\",\"isbn\":\"1\",\"author\":\"Jókai Mór\"}\n"
+                + "{\"title\":\"B\",\"isbn\":\"2\",\"author\":\"Gárdonyi Géza\"}\n"
+                + "{\"title\":\"C\",\"isbn\":\"3\",\"author\":\"Jókai Mór\"}\n";
+        ImportJob job = new ImportJob(ImportFormat.NDJSON, 0);
+        List<Long> checkpoints = new ArrayList<>();
+
+        // When
+        catalogImportService.run(job, new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), checkpoints::add);
+
+        // Then
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(3, job.getBooksCreated().get());
+        assertEquals(1, job.getAuthorsCreated().get());
+        assertEquals(List.of(2L, 3L), checkpoints);
+        verify(bulkIngestionService).createBooks(List.of(
+                new BulkBookRequest("A", "1", 1L), new BulkBookRequest("B", "2", 2L)));
+        verify(bulkIngestionService).createBooks(List.of(new BulkBookRequest("C", "3", 1L)));
+        // A második chunk szerzője már a memóriabeli térképből jön
+        verify(authorRepository, times(1)).findByNameIn(any());
+    }
+
+    @Test
+    void run_ShouldSkipAlreadyCommittedRecords() {
+        // Given
+        String csv = "title,isbn,author\nA,1,X\nB,2,X\n";
+        ImportJob job = new ImportJob(ImportFormat.CSV, 10);
+
+        // When
+        catalogImportService.run(job, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), committed -> { });
+
+        // Then
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(0, job.getRecordsRead().get());
+        verifyNoInteractions(bulkIngestionService, authorRepository);
+    }
+
+    @Test
+    void run_ShouldRejectRecordsWithoutAuthorOrTitle() {
+        // Given
+        when(bulkIngestionService.createBooks(any()))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)));
+        Author x = new Author();
+        x.setId(5L);
+        x.setName("X");
+        when(authorRepository.findByNameIn(any())).thenReturn(List.of(x));
+        String csv = "title,isbn,author\nA,1,\n,,\nB,2,X\n";
+        ImportJob job = new ImportJob(ImportFormat.CSV, 0);
+
+        // When
+        catalogImportService.run(job, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), committed -> { });
+
+        // Then
+        assertEquals(2, job.getRejected().get());
+        assertEquals(List.of("record 1: Author is required", "record 2: Title or author is required"), job.getRejections());
+        assertEquals(1, job.getBooksCreated().get());
+    }
+
+    private static BulkResult created(List<BulkBookRequest> requests) {
+        List<BulkItemResult> items = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            items.add(BulkItemResult.created(i, 100L + i));
+        }
+        return BulkResult.of(items);
+    }
+}
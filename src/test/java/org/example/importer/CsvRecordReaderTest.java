@@ -0,0 +1,56 @@
+package org.example.importer;
+
+import org.example.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void read_ShouldMapColumnsByHeaderName() throws IOException {
+        // Given
+        CsvRecordReader reader = reader("isbn,author,title,pages\r\n123,Jókai Mór,Az arany ember,400\r\n");
+
+        // When
+        CatalogRecord record = reader.read();
+
+        // Then
+        assertEquals(new CatalogRecord("Az arany ember", "123", "Jókai Mór"), record);
+        assertNull(reader.read());
+    }
+
+    @Test
+    void read_ShouldHandleQuotedFields() throws IOException {
+        // Given
+        CsvRecordReader reader = reader("title,isbn,author\n\"Egri csillagok, I.\",1,\"Gárdonyi \"\"Géza\"\"\"\n\"Két\nsor\",2,X");
+
+        // When & Then
+        assertEquals(new CatalogRecord("Egri csillagok, I.", "1", "Gárdonyi \"Géza\""), reader.read());
+        assertEquals(new CatalogRecord("Két\nsor", "2", "X"), reader.read());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void read_ShouldTreatEmptyFieldsAsMissingAndSkipBlankLines() throws IOException {
+        // Given
+        CsvRecordReader reader = reader("﻿title,isbn,author\n\n,,Szabó Magda\n");
+
+        // When & Then
+        assertEquals(new CatalogRecord(null, null, "Szabó Magda"), reader.read());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void constructor_ShouldRejectHeaderWithoutKnownColumns() {
+        assertThrows(InvalidRequestException.class, () -> reader("foo,bar\n1,2\n"));
+    }
+
+    private static CsvRecordReader reader(String csv) throws IOException {
+        return new CsvRecordReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
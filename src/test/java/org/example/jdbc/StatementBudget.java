@@ -0,0 +1,40 @@
+package org.example.jdbc;
+
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Tesztsegéd: egy művelet legfeljebb ennyi SQL utasítást futtathat (a hívó szálon, a commitot is beleértve,
+// ha a tranzakció a műveleten belül zárul). Túllépéskor a hiba a lefutott utasításokat is felsorolja.
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    public static <T> T assertMaxStatements(int max, ThrowingSupplier<T> action) throws Throwable {
+        T result;
+        StatementCounter.Scope scope = StatementCounter.open("budget", true);
+        try {
+            result = action.get();
+        } finally {
+            scope.close();
+        }
+        check(max, scope);
+        return result;
+    }
+
+    public static void assertMaxStatements(int max, Executable action) throws Throwable {
+        assertMaxStatements(max, () -> {
+            action.execute();
+            return null;
+        });
+    }
+
+    private static void check(int max, StatementCounter.Scope scope) {
+        if (scope.getStatements() > max) {
+            fail("Legfeljebb " + max + " SQL utasítás várt, de " + scope.getStatements() + " futott:\n  "
+                    + String.join("\n  ", scope.getSql()));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.jdbc;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountingDataSourceTest {
+
+    private StatementCountingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-counting;DB_CLOSE_DELAY=-1");
+        dataSource = new StatementCountingDataSource(h2, Duration.ofSeconds(10));
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS item");
+            statement.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(50))");
+        }
+    }
+
+    @Test
+    void scope_ShouldCountStatementsAndRows() throws Exception {
+        // Given
+        StatementCounter.Scope outer = StatementCounter.open("outer", true);
+        StatementCounter.Scope inner;
+
+        // When: egy 3 tételes batch, majd egy lekérdezés a belső hatókörben
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO item VALUES (?, ?)")) {
+                for (int id = 1; id <= 3; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "item-" + id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            inner = StatementCounter.open("inner");
+            try (PreparedStatement select = connection.prepareStatement("SELECT name FROM item WHERE id >= ?")) {
+                select.setInt(1, 2);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        assertNotNull(resultSet.getString(1));
+                    }
+                }
+            } finally {
+                inner.close();
+            }
+        } finally {
+            outer.close();
+        }
+
+        // Then: a batch egy utasítás 3 sorral, a lekérdezés egy utasítás 2 sorral
+        assertEquals(2, outer.getStatements());
+        assertEquals(5, outer.getRows());
+        assertEquals(List.of("INSERT INTO item VALUES (?, ?)", "SELECT name FROM item WHERE id >= ?"), outer.getSql());
+        assertEquals(1, inner.getStatements());
+        assertEquals(2, inner.getRows());
+        assertTrue(inner.getSql().isEmpty());
+    }
+
+    @Test
+    void scope_ShouldCountPlainStatementsAndUpdates() throws Exception {
+        StatementCounter.Scope scope = StatementCounter.open("plain", true);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertEquals(2, statement.executeUpdate("INSERT INTO item VALUES (1, 'a'), (2, 'b')"));
+            assertTrue(statement.execute("SELECT * FROM item"));
+            try (ResultSet resultSet = statement.getResultSet()) {
+                assertTrue(resultSet.next());
+            }
+        } finally {
+            scope.close();
+        }
+
+        assertEquals(2, scope.getStatements());
+        assertEquals(3, scope.getRows());
+        assertEquals("SELECT * FROM item", scope.getSql().get(1));
+        assertTrue(dataSource.isWrapperFor(JdbcDataSource.class));
+    }
+
+    @Test
+    void statementsOutsideScope_ShouldNotBeCounted() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO item VALUES (1, 'a')");
+        }
+
+        StatementCounter.Scope scope = StatementCounter.open("empty");
+        scope.close();
+        assertEquals(0, scope.getStatements());
+        assertEquals(Duration.ZERO, scope.getTime());
+    }
+
+    @Test
+    void budget_ShouldFailWithExecutedSql_WhenExceeded() {
+        AssertionError error = assertThrows(AssertionError.class, () -> StatementBudget.assertMaxStatements(1, () -> {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.executeQuery("SELECT 1").close();
+                statement.executeQuery("SELECT 2").close();
+            }
+        }));
+        assertTrue(error.getMessage().contains("SELECT 2"));
+    }
+}
@@ -1,4 +1,75 @@
 package org.example.repository;
 
+import org.example.dto.BookSummary;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class AuthorRepositoryTest {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> authorIds = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Három szerző: kettőnek két könyve van, a harmadiknak egy sem
+        for (int a = 0; a < 3; a++) {
+            Author author = new Author();
+            author.setName("Author " + a);
+            entityManager.persist(author);
+            authorIds.add(author.getId());
+            for (int b = 0; a < 2 && b < 2; b++) {
+                Book book = new Book();
+                book.setTitle("Book " + a + "-" + b);
+                book.setIsbn("isbn-" + a + "-" + b);
+                book.setAuthor(author);
+                entityManager.persist(book);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findBookSummariesByAuthorIdIn_ShouldReturnBooksOfAllAuthorsInOneStatement() {
+        // When
+        List<BookSummary> rows = authorRepository.findBookSummariesByAuthorIdIn(
+                Arrays.asList(authorIds.get(0), authorIds.get(1), authorIds.get(2), -1L));
+
+        // Then: 2 + 2 könyv és egy üres sor a könyv nélküli szerzőnek
+        assertEquals(5, rows.size());
+        assertEquals("Author 0", rows.get(0).getAuthorName());
+        assertEquals("Book 0-0", rows.get(0).getTitle());
+        assertEquals(authorIds.get(2), rows.get(4).getAuthorId());
+        assertNull(rows.get(4).getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
 }
@@ -0,0 +1,195 @@
+package org.example.repository;
+
+import org.example.dto.BookQuery;
+import org.example.dto.BookSummary;
+import org.example.dto.BookVersion;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.example.repository.BookRepositoryTest$RecordingInspector"
+})
+class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Három szerző, mindegyiknek két könyve
+        for (int a = 0; a < 3; a++) {
+            Author author = new Author();
+            author.setName("Author " + a);
+            entityManager.persist(author);
+            for (int b = 0; b < 2; b++) {
+                Book book = new Book();
+                book.setTitle("Book " + a + "-" + b);
+                book.setIsbn("isbn-" + a + "-" + b);
+                book.setAuthor(author);
+                entityManager.persist(book);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // A második szintű cache se rejtse el a szerzőnkénti lekérdezéseket
+        entityManagerFactory.getCache().evictAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RecordingInspector.SQL.clear();
+    }
+
+    @Test
+    void findAll_ShouldLoadBooksWithAuthorsInOneStatement() {
+        // When
+        List<Book> books = bookRepository.findAll();
+        books.forEach(book -> book.getAuthor().getName());
+
+        // Then
+        assertEquals(6, books.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByAuthorNameContainingIgnoreCase_ShouldUseOneStatement() {
+        // When
+        List<Book> books = bookRepository.findByAuthorNameContainingIgnoreCase("author");
+        books.forEach(book -> book.getAuthor().getName());
+
+        // Then
+        assertEquals(6, books.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByTitleOrAuthorNameContaining_ShouldUseOneStatement() {
+        // When
+        List<Book> books = bookRepository.findByTitleOrAuthorNameContaining("book 1");
+        books.forEach(book -> book.getAuthor().getName());
+
+        // Then
+        assertEquals(2, books.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findSummaryPageAfter_ShouldReturnFlatRowsInOneStatement() {
+        // When
+        List<BookSummary> page = bookRepository.findSummaryPageAfter(0L, PageRequest.of(0, 4));
+
+        // Then
+        assertEquals(4, page.size());
+        assertNotNull(page.get(0).getAuthorName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllBySpecification_ShouldCombineCriteriaInOneStatement() {
+        // When
+        Page<Book> page = bookRepository.findAll(
+                BookSpecifications.matching(new BookQuery("book 1", null, "author", "isbn-1")),
+                PageRequest.of(0, 10, Sort.by("title")));
+        page.forEach(book -> book.getAuthor().getName());
+
+        // Then
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Book 1-0", page.getContent().get(0).getTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllBySpecification_ShouldJoinAuthorOnce_WhenFilteringByAuthorName() {
+        // When: kis lapméret, hogy a count lekérdezés is lefusson
+        Page<Book> page = bookRepository.findAll(
+                BookSpecifications.matching(new BookQuery(null, null, "author 1", null)),
+                PageRequest.of(0, 1));
+        page.forEach(book -> book.getAuthor().getName());
+
+        // Then: a szűrés az entity graph fetch joinját használja, nincs második author join
+        assertEquals(2, page.getTotalElements());
+        assertEquals(2, RecordingInspector.SQL.size());
+        for (String sql : RecordingInspector.SQL) {
+            assertEquals(1, sql.toLowerCase(Locale.ROOT).split("join author ", -1).length - 1, sql);
+        }
+    }
+
+    @Test
+    void findAllBySpecification_ShouldReuseQueryPlanForSameCriteriaShape() {
+        // Given
+        bookRepository.findAll(BookSpecifications.matching(new BookQuery("book 0", null, null, null)),
+                PageRequest.of(0, 10));
+        statistics.clear();
+
+        // When: ugyanaz a szűrőkombináció más értékkel
+        Page<Book> page = bookRepository.findAll(BookSpecifications.matching(new BookQuery("book 2", null, null, null)),
+                PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(2, page.getTotalElements());
+        assertEquals(0, statistics.getQueryPlanCacheMissCount());
+    }
+
+    @Test
+    void findAllBySpecification_ShouldTreatLikeWildcardsLiterally() {
+        // When
+        Page<Book> page = bookRepository.findAll(BookSpecifications.matching(new BookQuery("%", null, null, null)),
+                PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void findVersionById_ShouldChange_WhenAuthorIsRenamed() {
+        // Given
+        Book book = bookRepository.findAll().get(0);
+        BookVersion before = bookRepository.findVersionById(book.getId()).orElseThrow();
+
+        // When
+        book.getAuthor().setName("Renamed");
+        entityManager.flush();
+
+        // Then
+        BookVersion after = bookRepository.findVersionById(book.getId()).orElseThrow();
+        assertEquals(before.getVersion(), after.getVersion());
+        assertNotEquals(before.getAuthorVersion(), after.getAuthorVersion());
+    }
+
+    // A Hibernate által előállított SQL utasítások (a join-ok ellenőrzéséhez)
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
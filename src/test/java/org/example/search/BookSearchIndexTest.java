@@ -0,0 +1,93 @@
+package org.example.search;
+
+import org.example.dto.BookSearchResult;
+import org.example.dto.BookSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.putBook(new BookSummary(1L, "Harry Potter és a bölcsek köve", "963-8386-87-0", 1L, "J.K. Rowling"));
+        index.putBook(new BookSummary(2L, "Harry Potter és a titkok kamrája", "963-8386-88-9", 1L, "J.K. Rowling"));
+        index.putBook(new BookSummary(3L, "A ragyogás", "963-1111-11-1", 2L, "Stephen King"));
+    }
+
+    @Test
+    void tokenize_ShouldLowercaseAndStripAccents() {
+        assertEquals(Arrays.asList("bolcsek", "kove"), BookSearchIndex.tokenize("Bölcsek  KÖVE!"));
+    }
+
+    @Test
+    void search_ShouldMatchAllTermsAcrossTitleAndAuthor() {
+        // When
+        BookSearchResult result = index.search("potter rowling kamra", 0, 10);
+
+        // Then
+        assertEquals(1, result.getTotal());
+        assertEquals(2L, result.getHits().get(0).getBook().getId());
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesBeforeAuthorMatches() {
+        // Given
+        index.putBook(new BookSummary(4L, "King of the Road", "111", 3L, "Other Author"));
+
+        // When
+        BookSearchResult result = index.search("king", 0, 10);
+
+        // Then - a címbeli egyezés (3) megelőzi a szerzőnévbelit (2)
+        assertEquals(2, result.getTotal());
+        assertEquals(4L, result.getHits().get(0).getBook().getId());
+        assertEquals(3L, result.getHits().get(1).getBook().getId());
+    }
+
+    @Test
+    void search_ShouldPage() {
+        // When
+        BookSearchResult result = index.search("harry", 1, 1);
+
+        // Then
+        assertEquals(2, result.getTotal());
+        assertEquals(1, result.getHits().size());
+    }
+
+    @Test
+    void putAuthor_ShouldReindexBooksOfRenamedAuthor() {
+        // When
+        index.putAuthor(2L, "Richard Bachman");
+
+        // Then
+        assertEquals(0, index.search("stephen", 0, 10).getTotal());
+        BookSearchResult result = index.search("bachman", 0, 10);
+        assertEquals(1, result.getTotal());
+        assertEquals("Richard Bachman", result.getHits().get(0).getBook().getAuthorName());
+    }
+
+    @Test
+    void removeBook_ShouldDropItFromResults() {
+        // When
+        index.removeBook(1L);
+
+        // Then
+        assertEquals(1, index.search("harry", 0, 10).getTotal());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void putBook_ShouldFillAuthorNameFromIndex_WhenMissing() {
+        // When
+        index.putBook(new BookSummary(5L, "Az", "222", 2L, null));
+
+        // Then
+        assertEquals("Stephen King", index.search("az", 0, 10).getHits().get(0).getBook().getAuthorName());
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnIndexTest {
+
+    private IsbnIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IsbnIndex();
+        index.put(1L, "978-963-07-8384-2");
+        index.put(2L, "963-8386-87-8");
+    }
+
+    @Test
+    void normalize_ShouldStripSeparatorsAndConvertIsbn10() {
+        assertEquals("9789630783842", IsbnIndex.normalize("978 963 07 8384 2"));
+        assertEquals("9789638386878", IsbnIndex.normalize("963-8386-87-8"));
+        assertEquals("9780306406157", IsbnIndex.normalize("0-306-40615-2"));
+        assertEquals("9780804429573", IsbnIndex.normalize("0-8044-2957-x"));
+    }
+
+    @Test
+    void normalize_ShouldRejectAnythingButValidIsbns() {
+        assertNull(IsbnIndex.normalize("--"));
+        assertNull(IsbnIndex.normalize("seed-1"));
+        assertNull(IsbnIndex.normalize("1"));
+        // Rossz ellenőrző számjegy
+        assertNull(IsbnIndex.normalize("978-963-07-8384-0"));
+        assertNull(IsbnIndex.normalize("0-306-40615-X"));
+        // X csak az ISBN-10 utolsó helyén
+        assertNull(IsbnIndex.normalize("X-306-40615-2"));
+        // Nem könyv EAN előtag
+        assertNull(IsbnIndex.normalize("5901234123457"));
+        // Túl hosszú, és az elválasztókon kívül más karakter
+        assertNull(IsbnIndex.normalize("97896307838420"));
+        assertNull(IsbnIndex.normalize("ISBN 978-963-07-8384-2"));
+    }
+
+    @Test
+    void spellings_ShouldIncludeIsbn10Form_ForPrefix978() {
+        assertEquals(List.of("9780804429573", "080442957X"), IsbnIndex.spellings("9780804429573"));
+        assertEquals(List.of("9791000000008"), IsbnIndex.spellings("9791000000008"));
+    }
+
+    @Test
+    void find_ShouldMatchAnySpellingOfTheSameIsbn() {
+        assertEquals(OptionalLong.of(1L), index.find("9789630783842"));
+        assertEquals(OptionalLong.of(2L), index.find("978-963-8386-87-8"));
+        assertEquals(OptionalLong.empty(), index.find("978-0-00-000000-2"));
+    }
+
+    @Test
+    void put_ShouldMoveEntry_WhenIsbnChanges() {
+        // When
+        index.put(1L, "0-306-40615-2");
+
+        // Then
+        assertFalse(index.find("978-963-07-8384-2").isPresent());
+        assertEquals(OptionalLong.of(1L), index.find("9780306406157"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void put_ShouldDropEntry_WhenIsbnIsNoLongerValid() {
+        // When
+        index.put(1L, "seed-1");
+
+        // Then
+        assertFalse(index.find("978-963-07-8384-2").isPresent());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_ShouldKeepEntryTakenOverByAnotherBook() {
+        // Given: a 3-as könyv ugyanazt az ISBN-t kapja
+        index.put(3L, "9789630783842");
+
+        // When
+        index.remove(1L);
+
+        // Then
+        assertEquals(OptionalLong.of(3L), index.find("978-963-07-8384-2"));
+    }
+
+    @Test
+    void index_ShouldSurviveGrowthAndTombstones() {
+        // Given: sok beszúrás és törlés, több újraépítéssel
+        for (long id = 100; id < 20_100; id++) {
+            index.put(id, isbn(id));
+        }
+        for (long id = 100; id < 20_100; id += 2) {
+            index.remove(id);
+        }
+
+        // Then
+        assertEquals(10_002, index.size());
+        for (long id = 100; id < 20_100; id++) {
+            assertEquals(id % 2 == 1, index.find(isbn(id)).isPresent());
+        }
+        assertEquals(OptionalLong.of(20_099L), index.find(isbn(20_099).replace("-", "")));
+    }
+
+    @Test
+    void clear_ShouldRemoveAllEntries() {
+        // When
+        index.clear();
+
+        // Then
+        assertEquals(0, index.size());
+        assertFalse(index.find("963-8386-87-8").isPresent());
+    }
+
+    // Érvényes, kötőjeles ISBN-13 a megadott sorszámmal
+    private static String isbn(long n) {
+        String body = String.format("978%09d", n);
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return "978-" + body.substring(3) + "-" + (10 - sum % 10) % 10;
+    }
+}
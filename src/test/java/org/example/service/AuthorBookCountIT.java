@@ -0,0 +1,188 @@
+package org.example.service;
+
+import org.example.dto.AuthorPatch;
+import org.example.dto.AuthorSummary;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.PageResult;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class AuthorBookCountIT {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BulkIngestionService bulkIngestionService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Author first;
+    private Author second;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        first = libraryService.createAuthor(author("First"));
+        second = libraryService.createAuthor(author("Second"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testCountFollowsCreateMoveAndDelete() {
+        // Given
+        Book book = libraryService.createBook(book("One", first));
+        libraryService.createBook(book("Two", first));
+        assertEquals(2, count(first));
+
+        // When: áthelyezés a második szerzőhöz, majd törlés
+        libraryService.updateBook(book.getId(), book("One", second));
+        assertEquals(1, count(first));
+        assertEquals(1, count(second));
+        libraryService.deleteBook(book.getId());
+
+        // Then
+        assertEquals(1, count(first));
+        assertEquals(0, count(second));
+    }
+
+    @Test
+    public void testBookWritesDoNotChangeTheAuthorVersion() {
+        // Given
+        Book book = libraryService.createBook(book("One", first));
+        Long authorVersion = authorRepository.findVersionById(first.getId()).orElseThrow();
+        String bookETag = bookService.findBookETag(book.getId()).orElseThrow();
+
+        // When: újabb könyv, áthelyezés és törlés
+        Book other = libraryService.createBook(book("Two", first));
+        libraryService.updateBook(other.getId(), book("Two", second));
+        libraryService.deleteBook(other.getId());
+
+        // Then: a szerző és a többi könyv ETag-je nem változik, a régi verzióval átnevezhető
+        assertEquals(1, count(first));
+        assertEquals(authorVersion, authorRepository.findVersionById(first.getId()).orElseThrow());
+        assertEquals(bookETag, bookService.findBookETag(book.getId()).orElseThrow());
+        assertEquals("Renamed", authorService.patchAuthor(first.getId(), new AuthorPatch(authorVersion, "Renamed")).getName());
+        assertEquals(1, count(first));
+    }
+
+    @Test
+    public void testBulkCreateUpdatesCountsOncePerAuthor() {
+        // When
+        bulkIngestionService.createBooks(Arrays.asList(
+                new BulkBookRequest("A", "bulk-a", first.getId()),
+                new BulkBookRequest("B", "bulk-b", first.getId()),
+                new BulkBookRequest("C", "bulk-c", second.getId()),
+                new BulkBookRequest("Rejected", "bulk-a", second.getId())));
+
+        // Then
+        assertEquals(2, count(first));
+        assertEquals(1, count(second));
+    }
+
+    @Test
+    public void testConcurrentCreatesDoNotLoseIncrements() throws Exception {
+        // Given
+        int threads = 4;
+        int perThread = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    libraryService.createBook(book("Concurrent " + thread + "-" + i, first));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread, count(first));
+    }
+
+    @Test
+    public void testListingWithCountsReadsOnlyTheAuthorTable() {
+        // Given
+        libraryService.createBook(book("One", second));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        PageResult<AuthorSummary> page = authorService.findAuthorSummaries(
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("bookCount"))));
+
+        // Then
+        assertEquals(2, page.getTotal());
+        assertEquals(new AuthorSummary(second.getId(), "Second", 1), page.getItems().get(0));
+        assertEquals(new AuthorSummary(first.getId(), "First", 0), page.getItems().get(1));
+        assertTrue(Arrays.stream(statistics.getQueries()).noneMatch(query -> query.contains("Book")));
+    }
+
+    private int count(Author author) {
+        return authorRepository.findById(author.getId()).orElseThrow().getBookCount();
+    }
+
+    private static Author author(String name) {
+        Author author = new Author();
+        author.setName(name);
+        return author;
+    }
+
+    private static Book book(String title, Author author) {
+        Book book = new Book();
+        book.setTitle(title);
+        Author reference = new Author();
+        reference.setId(author.getId());
+        book.setAuthor(reference);
+        return book;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.service;
+
+import org.example.dto.AuthorBooksResult;
+import org.example.dto.BookSummary;
+import org.example.exception.InvalidRequestException;
+import org.example.repository.AuthorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorServiceTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @InjectMocks
+    private AuthorService authorService;
+
+    @Test
+    void findBooksByAuthorIds_ShouldGroupRowsAndReportMissingIds() {
+        // Given: a 2-es szerzőnek két könyve van, a 3-asnak egy sem, az 5-ös nem létezik
+        when(authorRepository.findBookSummariesByAuthorIdIn(any())).thenReturn(Arrays.asList(
+                new BookSummary(10L, "First", "isbn-10", 2L, "Two"),
+                new BookSummary(11L, "Second", "isbn-11", 2L, "Two"),
+                new BookSummary(null, null, null, 3L, "Three")));
+
+        // When
+        AuthorBooksResult result = authorService.findBooksByAuthorIds(Arrays.asList(5L, 3L, 2L, 3L));
+
+        // Then: a kérés sorrendjében, ismétlés nélkül
+        assertEquals(2, result.getAuthors().size());
+        assertEquals(3L, result.getAuthors().get(0).getId());
+        assertTrue(result.getAuthors().get(0).getBooks().isEmpty());
+        assertEquals("Two", result.getAuthors().get(1).getName());
+        assertEquals(2, result.getAuthors().get(1).getBooks().size());
+        assertEquals(Collections.singletonList(5L), result.getMissingIds());
+        verify(authorRepository, times(1)).findBookSummariesByAuthorIdIn(any());
+    }
+
+    @Test
+    void findBooksByAuthorIds_ShouldRejectTooManyIds() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, AuthorService.MAX_BATCH_AUTHOR_IDS + 1).boxed()
+                .collect(Collectors.toList());
+
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> authorService.findBooksByAuthorIds(ids));
+        verifyNoInteractions(authorRepository);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.service;
+
+import org.example.dto.BookSearchResult;
+import org.example.dto.BookSummary;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogChangeEvent.Operation;
+import org.example.event.CatalogResetEvent;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    private BookSearchService bookSearchService;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamAllSummaries()).thenReturn(Stream.empty());
+        bookSearchService = new BookSearchService(bookRepository, transactionManager, singleFlight);
+        bookSearchService.rebuildIndex();
+    }
+
+    @Test
+    void onCatalogChange_ShouldIgnoreOlderUpdate_WhenItArrivesLate() {
+        // When: a 2-es verzió eseménye az 1-es előtt érkezik
+        bookSearchService.onCatalogChange(saved(Operation.UPDATE, "Newer", 2L));
+        bookSearchService.onCatalogChange(saved(Operation.UPDATE, "Older", 1L));
+
+        // Then
+        assertEquals(1, search("Newer").getTotal());
+        assertEquals(0, search("Older").getTotal());
+    }
+
+    @Test
+    void onCatalogChange_ShouldKeepBookDeleted_WhenSaveArrivesAfterDelete() {
+        // Given
+        bookSearchService.onCatalogChange(saved(Operation.CREATE, "Gone", 0L));
+
+        // When: a törlés (utolsó verzió 1) megelőzi az 1-es verzió mentését
+        bookSearchService.onCatalogChange(CatalogChangeEvent.bookDeleted(1L, 1L));
+        bookSearchService.onCatalogChange(saved(Operation.UPDATE, "Gone", 1L));
+
+        // Then
+        assertEquals(0, search("Gone").getTotal());
+        assertFalse(bookSearchService.findByIsbn("978-963-07-8384-2").isPresent());
+        verify(bookRepository, never()).findById(1L);
+    }
+
+    @Test
+    void onCatalogReset_ShouldForgetAppliedVersions() {
+        // Given
+        bookSearchService.onCatalogChange(CatalogChangeEvent.bookDeleted(1L, 5L));
+
+        // When: újratöltés után az azonosítók elölről kezdődnek
+        bookSearchService.onCatalogReset(new CatalogResetEvent(System.currentTimeMillis()));
+        bookSearchService.onCatalogChange(saved(Operation.CREATE, "Reseeded", 0L));
+
+        // Then
+        assertEquals(1, search("Reseeded").getTotal());
+    }
+
+    private BookSearchResult search(String query) {
+        return bookSearchService.search(query, 0, 10);
+    }
+
+    private static CatalogChangeEvent saved(Operation operation, String title, Long version) {
+        return CatalogChangeEvent.bookSaved(operation, new BookSummary(1L, title, "978-963-07-8384-2", 7L, "Szerző"),
+                version);
+    }
+}
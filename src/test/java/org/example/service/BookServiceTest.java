@@ -1,5 +1,14 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dto.BookPatch;
+import org.example.dto.BookQuery;
+import org.example.dto.CursorPage;
+import org.example.dto.PageResult;
+import org.example.dto.BookSummary;
+import org.example.event.CatalogVersion;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ResourceNotFoundException;
 import org.example.model.Book;
 import org.example.repository.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,13 +16,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +43,13 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private AuthorBookCounter authorBookCounter;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new CatalogVersion(), mock(PlatformTransactionManager.class),
+            Duration.ofSeconds(1), new SimpleMeterRegistry());
+
     @InjectMocks
     private BookService bookService;
 
@@ -74,6 +102,7 @@ class BookServiceTest {
         // Then
         assertEquals("Test Book", result.getTitle());
         verify(bookRepository).save(testBook);
+        verify(authorBookCounter).bookAdded(testBook.getAuthor());
     }
 
     @Test
@@ -86,12 +115,102 @@ class BookServiceTest {
                 bookService.updateBook(1L, testBook));
     }
 
+    @Test
+    void findBooksAfter_ShouldReturnNextCursor_WhenPageIsFull() {
+        // Given
+        when(bookRepository.findPageAfter(0L, PageRequest.of(0, 1))).thenReturn(Arrays.asList(testBook));
+
+        // When
+        CursorPage<Book> result = bookService.findBooksAfter(0L, 1);
+
+        // Then
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, result.getNextCursor());
+    }
+
+    @Test
+    void findBooksAfter_ShouldReturnNullCursor_WhenLastPage() {
+        // Given
+        when(bookRepository.findPageAfter(0L, PageRequest.of(0, 10))).thenReturn(Arrays.asList(testBook));
+
+        // When
+        CursorPage<Book> result = bookService.findBooksAfter(0L, 10);
+
+        // Then
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void queryBooks_ShouldMapSortAndAppendIdTiebreaker() {
+        // Given
+        Pageable expected = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("author.name"), Sort.Order.asc("id")));
+        when(bookRepository.findAll(any(Specification.class), eq(expected)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testBook), expected, 1));
+
+        // When
+        PageResult<BookSummary> result = bookService.queryBooks(new BookQuery(),
+                PageRequest.of(0, 20, Sort.by(Sort.Order.desc("author"))));
+
+        // Then
+        assertEquals(1, result.getTotal());
+        assertEquals("Test Book", result.getItems().get(0).getTitle());
+    }
+
+    @Test
+    void queryBooks_ShouldRejectUnknownSortProperty() {
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> bookService.queryBooks(new BookQuery(),
+                PageRequest.of(0, 20, Sort.by("author.books"))));
+        verifyNoInteractions(bookRepository);
+    }
+
     @Test
     void deleteBook_ShouldCallRepository() {
+        // Given
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
         // When
         bookService.deleteBook(1L);
 
         // Then
-        verify(bookRepository).deleteById(1L);
+        verify(bookRepository).delete(testBook);
+        verify(authorBookCounter).bookRemoved(testBook.getAuthor());
+    }
+
+    @Test
+    void deleteBook_ShouldThrowException_WhenNotExists() {
+        // Given
+        when(bookRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> bookService.deleteBook(999L));
+        verifyNoInteractions(authorBookCounter);
+    }
+
+    @Test
+    void deleteBooks_ShouldRejectEmptyOrTooLargeIdLists() {
+        List<Long> tooMany = LongStream.rangeClosed(1, BookService.MAX_BATCH_DELETE_IDS + 1).boxed()
+                .collect(Collectors.toList());
+
+        assertThrows(InvalidRequestException.class, () -> bookService.deleteBooks(Collections.singletonList(null)));
+        assertThrows(InvalidRequestException.class, () -> bookService.deleteBooks(tooMany));
+        verifyNoInteractions(authorBookCounter);
+    }
+
+    @Test
+    void patchBook_ShouldRejectInvalidPatchesBeforeTouchingTheDatabase() {
+        BookPatch withAuthor = new BookPatch(1L, "Title", null);
+        withAuthor.unsupportedField("author", 2);
+
+        assertEquals("Unsupported fields: author", assertThrows(InvalidRequestException.class,
+                () -> bookService.patchBook(1L, withAuthor)).getMessage());
+        assertEquals("Version is required", assertThrows(InvalidRequestException.class,
+                () -> bookService.patchBook(1L, new BookPatch(null, "Title", null))).getMessage());
+        assertEquals("No fields to update", assertThrows(InvalidRequestException.class,
+                () -> bookService.patchBook(1L, new BookPatch(1L, null, null))).getMessage());
+        assertEquals("Title must not be blank", assertThrows(InvalidRequestException.class,
+                () -> bookService.patchBook(1L, new BookPatch(1L, " ", null))).getMessage());
+        verifyNoInteractions(bookRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,274 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkItemResult;
+import org.example.dto.BulkResult;
+import org.example.dto.PendingBook;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ServiceOverloadedException;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BookWriteBehindServiceTest {
+
+    private final BulkIngestionService bulkIngestionService = mock(BulkIngestionService.class);
+    private final List<List<BulkBookRequest>> batches = new CopyOnWriteArrayList<>();
+    private final List<BookWriteBehindService> services = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(BookWriteBehindService::shutdown);
+    }
+
+    @Test
+    void submit_ShouldWriteQueuedBooksInOneBatchAndReportStatus() throws Exception {
+        // Given: minden ISBN nélküli könyv létrejön, az "taken" ISBN-ű elutasításra kerül
+        acceptAllButTakenIsbn();
+        BookWriteBehindService service = service(100);
+        PendingBook first = service.submit(book("Első", null));
+        PendingBook second = service.submit(book("Második", "taken"));
+        assertEquals(PendingBook.State.QUEUED, service.findStatus(first.getId()).orElseThrow().getState());
+
+        // When
+        service.start();
+
+        // Then: a két kérés egy batch-ben (egy tranzakcióban) íródik ki
+        waitUntil(() -> service.findStatus(second.getId()).orElseThrow().getState() != PendingBook.State.QUEUED);
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        PendingBook created = service.findStatus(first.getId()).orElseThrow();
+        assertEquals(PendingBook.State.CREATED, created.getState());
+        assertEquals(1000L, created.getBookId());
+        PendingBook rejected = service.findStatus(second.getId()).orElseThrow();
+        assertEquals(PendingBook.State.REJECTED, rejected.getState());
+        assertEquals("Book already exists with isbn: taken", rejected.getError());
+    }
+
+    @Test
+    void submit_ShouldRejectInvalidBookAndFullQueue() {
+        BookWriteBehindService service = service(1);
+
+        assertThrows(InvalidRequestException.class, () -> service.submit(book(" ", null)));
+        Book withoutAuthor = new Book();
+        withoutAuthor.setTitle("Szerző nélkül");
+        assertThrows(InvalidRequestException.class, () -> service.submit(withoutAuthor));
+
+        // Az író szál nem fut, így a második kérésnek már nincs hely
+        service.submit(book("Egy", null));
+        ServiceOverloadedException full = assertThrows(ServiceOverloadedException.class,
+                () -> service.submit(book("Kettő", null)));
+        assertEquals(1, full.getRetryAfterSeconds());
+        assertEquals(1, service.queueSize());
+    }
+
+    @Test
+    void shutdown_ShouldSpillUnwrittenBooksAndReplayThemOnStart() throws Exception {
+        // Given: az író szál nem indult el, a sorban két kérés vár
+        BookWriteBehindService stopped = service(10);
+        stopped.submit(book("Mentett 1", "111"));
+        stopped.submit(book("Mentett 2", null));
+
+        // When
+        stopped.shutdown();
+
+        // Then: a kérések a fájlba kerülnek, és a következő induláskor kiíródnak
+        Path spillFile = tempDir.resolve("spill.ndjson");
+        assertEquals(2, Files.readAllLines(spillFile).size());
+        verifyNoInteractions(bulkIngestionService);
+
+        acceptAllButTakenIsbn();
+        BookWriteBehindService restarted = service(10);
+        restarted.start();
+        waitUntil(() -> !Files.exists(spillFile));
+        assertEquals(1, batches.size());
+        assertEquals(new BulkBookRequest("Mentett 1", "111", 7L), batches.get(0).get(0));
+        assertEquals("Mentett 2", batches.get(0).get(1).getTitle());
+    }
+
+    @Test
+    void shutdown_ShouldSpillTheBatchInFlight_WhenWriterTimesOut() throws Exception {
+        // Given: a batch írása a leállási határidőn túl is tart
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bulkIngestionService.createBooks(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("Leállás");
+        });
+        BookWriteBehindService service = service(10, Duration.ofMillis(100));
+        service.submit(book("Folyamatban 1", null));
+        service.submit(book("Folyamatban 2", null));
+        service.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When
+        service.shutdown();
+        release.countDown();
+
+        // Then: a már a sorból kivett batch is a fájlba került
+        List<String> lines = Files.readAllLines(tempDir.resolve("spill.ndjson"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("Folyamatban 1"));
+    }
+
+    @Test
+    void replay_ShouldKeepSpillFile_WhenTheBatchFails() throws Exception {
+        // Given: két mentett kérés
+        BookWriteBehindService stopped = service(10);
+        stopped.submit(book("Mentett 1", null));
+        stopped.submit(book("Mentett 2", null));
+        stopped.shutdown();
+        Path spillFile = tempDir.resolve("spill.ndjson");
+
+        // When: az újrakiírás tranzakciója sikertelen
+        AtomicInteger attempts = new AtomicInteger();
+        when(bulkIngestionService.createBooks(anyList())).thenAnswer(invocation -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Az adatbázis nem elérhető");
+        });
+        BookWriteBehindService failing = service(10);
+        failing.start();
+        waitUntil(() -> attempts.get() == 1);
+        failing.shutdown();
+
+        // Then: a kérések a fájlban maradnak, és a következő sikeres induláskor kiíródnak
+        assertEquals(2, Files.readAllLines(spillFile).size());
+        reset(bulkIngestionService);
+        acceptAllButTakenIsbn();
+        service(10).start();
+        waitUntil(() -> !Files.exists(spillFile));
+        assertEquals(2, batches.get(0).size());
+    }
+
+    @Test
+    void shutdown_ShouldSpillEveryAcceptedBook_WhenSubmitsRace() throws Exception {
+        // Given: négy szál addig küld, amíg a leállás el nem utasítja
+        BookWriteBehindService service = service(100_000);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch submitting = new CountDownLatch(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                submitting.countDown();
+                while (true) {
+                    try {
+                        service.submit(book("Verseny", null));
+                        accepted.incrementAndGet();
+                    } catch (ServiceOverloadedException e) {
+                        return;
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        assertTrue(submitting.await(5, TimeUnit.SECONDS));
+
+        // When
+        service.shutdown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        // Then: minden 202-vel elfogadott kérés a fájlba került
+        assertEquals(accepted.get(), Files.readAllLines(tempDir.resolve("spill.ndjson")).size());
+    }
+
+    @Test
+    void writer_ShouldKeepRunning_WhenABatchFailsUnexpectedly() throws Exception {
+        // Given: az első batch eredménye hibás (nem létező sorszám), a többi rendben
+        AtomicInteger calls = new AtomicInteger();
+        when(bulkIngestionService.createBooks(anyList())).thenAnswer(invocation ->
+                calls.incrementAndGet() == 1
+                        ? BulkResult.of(List.of(BulkItemResult.created(5, 1L)))
+                        : BulkResult.of(List.of(BulkItemResult.created(0, 1001L))));
+        BookWriteBehindService service = service(10);
+        service.start();
+
+        // When
+        PendingBook first = service.submit(book("Első", null));
+        waitUntil(() -> service.findStatus(first.getId()).orElseThrow().getState() != PendingBook.State.QUEUED);
+        PendingBook second = service.submit(book("Második", null));
+
+        // Then: az első FAILED, az író szál a következőt még kiírja
+        assertEquals(PendingBook.State.FAILED, service.findStatus(first.getId()).orElseThrow().getState());
+        waitUntil(() -> service.findStatus(second.getId()).orElseThrow().getState() == PendingBook.State.CREATED);
+        assertEquals(1001L, service.findStatus(second.getId()).orElseThrow().getBookId());
+    }
+
+    @Test
+    void accepts_ShouldRequireEnabledModeAndPreferHeader() {
+        BookWriteBehindService service = service(10);
+        assertTrue(service.accepts("respond-async, wait=5"));
+        assertFalse(service.accepts(null));
+        assertFalse(service.accepts("return=minimal"));
+    }
+
+    private BookWriteBehindService service(int queueCapacity) {
+        return service(queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private BookWriteBehindService service(int queueCapacity, Duration shutdownTimeout) {
+        BookWriteBehindService service = new BookWriteBehindService(bulkIngestionService, new ObjectMapper(),
+                new SimpleMeterRegistry(), true, queueCapacity, 500, Duration.ofMinutes(1), shutdownTimeout,
+                tempDir.resolve("spill.ndjson"));
+        services.add(service);
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void acceptAllButTakenIsbn() {
+        when(bulkIngestionService.createBooks(anyList())).thenAnswer(invocation -> {
+            List<BulkBookRequest> requests = new ArrayList<>(invocation.getArgument(0, List.class));
+            batches.add(requests);
+            List<BulkItemResult> items = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                items.add("taken".equals(requests.get(i).getIsbn())
+                        ? BulkItemResult.rejected(i, "Book already exists with isbn: taken")
+                        : BulkItemResult.created(i, 1000L + i));
+            }
+            return BulkResult.of(items);
+        });
+    }
+
+    private static Book book(String title, String isbn) {
+        Author author = new Author();
+        author.setId(7L);
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setAuthor(author);
+        return book;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Időtúllépés");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.service;
+
+import org.example.dto.DeleteResult;
+import org.example.exception.ResourceNotFoundException;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class BulkDeleteIT {
+
+    private static final int BOOKS_PER_AUTHOR = 300;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Author author;
+    private Author otherAuthor;
+    private List<Book> books;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        author = libraryService.createAuthor(author("Prolific Author"));
+        otherAuthor = libraryService.createAuthor(author("Other Author"));
+        books = new ArrayList<>();
+        for (int i = 0; i < BOOKS_PER_AUTHOR; i++) {
+            books.add(libraryService.createBook(book("Book " + i, "isbn-" + i, author)));
+        }
+        books.add(libraryService.createBook(book("Other Book", "isbn-99999", otherAuthor)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testDeleteBooksByIds() {
+        // Given: két könyv az egyik, egy a másik szerzőtől, és egy nem létező id
+        Long missingId = books.get(books.size() - 1).getId() + 1000;
+        List<Long> ids = Arrays.asList(books.get(0).getId(), books.get(1).getId(),
+                books.get(BOOKS_PER_AUTHOR).getId(), missingId);
+        // A törlendő könyv a cache-ben és a lekérdezés cache-ben is ott van
+        assertTrue(bookRepository.findById(books.get(0).getId()).isPresent());
+        assertEquals(1, bookRepository.findByAuthorId(otherAuthor.getId()).size());
+
+        // When
+        DeleteResult result = bookService.deleteBooks(ids);
+
+        // Then
+        assertEquals(3, result.getDeletedBooks());
+        assertEquals(Collections.singletonList(missingId), result.getMissingIds());
+        assertFalse(bookRepository.findById(books.get(0).getId()).isPresent());
+        assertTrue(bookRepository.findByAuthorId(otherAuthor.getId()).isEmpty());
+        assertFalse(bookSearchService.findByIsbn("isbn-0").isPresent());
+        assertEquals(BOOKS_PER_AUTHOR - 2, authorRepository.findById(author.getId()).orElseThrow().getBookCount());
+        assertEquals(0, authorRepository.findById(otherAuthor.getId()).orElseThrow().getBookCount());
+    }
+
+    @Test
+    public void testDeleteAuthorIsSetBased() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        DeleteResult result = authorService.deleteAuthor(author.getId());
+
+        // Then: két utasítás, a könyvek betöltése nélkül
+        assertEquals(BOOKS_PER_AUTHOR, result.getDeletedBooks());
+        assertEquals(1, result.getDeletedAuthors());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertFalse(authorRepository.findById(author.getId()).isPresent());
+        assertEquals(1, bookRepository.count());
+        assertFalse(bookSearchService.findByIsbn("isbn-1").isPresent());
+        assertTrue(bookSearchService.findByIsbn("isbn-99999").isPresent());
+    }
+
+    @Test
+    public void testDeleteMissingAuthorKeepsBooks() {
+        assertThrows(ResourceNotFoundException.class, () -> authorService.deleteAuthor(otherAuthor.getId() + 1000));
+        assertEquals(BOOKS_PER_AUTHOR + 1, bookRepository.count());
+    }
+
+    private static Author author(String name) {
+        Author author = new Author();
+        author.setName(name);
+        return author;
+    }
+
+    private static Book book(String title, String isbn, Author author) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setAuthor(author);
+        return book;
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BulkBookRequest;
+import org.example.dto.BulkItemResult;
+import org.example.dto.BulkResult;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+public class BulkIngestionServiceIT {
+
+    private static final int BENCHMARK_ROWS = 2000;
+
+    @Autowired
+    private BulkIngestionService bulkIngestionService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        author = new Author();
+        author.setName("Bulk Author");
+        author = authorRepository.save(author);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testCreateBooks_ReportsPerItemOutcome() {
+        // Given
+        Book existing = new Book();
+        existing.setTitle("Existing");
+        existing.setIsbn("isbn-taken");
+        existing.setAuthor(author);
+        bookRepository.save(existing);
+
+        List<BulkBookRequest> requests = Arrays.asList(
+                new BulkBookRequest("Ok", "isbn-1", author.getId()),
+                new BulkBookRequest("Taken", "isbn-taken", author.getId()),
+                new BulkBookRequest("Duplicate in request", "isbn-1", author.getId()),
+                new BulkBookRequest("No author", "isbn-2", 999_999L),
+                new BulkBookRequest(" ", "isbn-3", author.getId()),
+                new BulkBookRequest("Ok too", null, author.getId()));
+
+        // When
+        BulkResult result = bulkIngestionService.createBooks(requests);
+
+        // Then
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getRejected());
+        assertEquals(BulkItemResult.Status.CREATED, result.getItems().get(0).getStatus());
+        assertNotNull(result.getItems().get(0).getId());
+        assertEquals(BulkItemResult.Status.REJECTED, result.getItems().get(1).getStatus());
+        assertEquals(BulkItemResult.Status.REJECTED, result.getItems().get(2).getStatus());
+        assertEquals(BulkItemResult.Status.REJECTED, result.getItems().get(3).getStatus());
+        assertEquals(BulkItemResult.Status.REJECTED, result.getItems().get(4).getStatus());
+        assertEquals(BulkItemResult.Status.CREATED, result.getItems().get(5).getStatus());
+        assertEquals(3, bookRepository.count());
+    }
+
+    @Test
+    public void testBulkVersusSingleSaveThroughput() {
+        // Egyenkénti mentés a LibraryService-en keresztül (hívásonként egy tranzakció)
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ROWS; i++) {
+            Book book = new Book();
+            book.setTitle("Single " + i);
+            book.setIsbn("single-" + i);
+            book.setAuthor(author);
+            libraryService.createBook(book);
+        }
+        double singleSeconds = (System.nanoTime() - singleStart) / 1e9;
+
+        // Tömeges felvitel egyetlen hívással
+        List<BulkBookRequest> requests = new ArrayList<>(BENCHMARK_ROWS);
+        for (int i = 0; i < BENCHMARK_ROWS; i++) {
+            requests.add(new BulkBookRequest("Bulk " + i, "bulk-" + i, author.getId()));
+        }
+        long bulkStart = System.nanoTime();
+        BulkResult result = bulkIngestionService.createBooks(requests);
+        double bulkSeconds = (System.nanoTime() - bulkStart) / 1e9;
+
+        log.info("Egyenkénti mentés: {} sor/s, tömeges: {} sor/s",
+                Math.round(BENCHMARK_ROWS / singleSeconds), Math.round(BENCHMARK_ROWS / bulkSeconds));
+        assertEquals(BENCHMARK_ROWS, result.getCreated());
+        assertEquals(2L * BENCHMARK_ROWS, bookRepository.count());
+    }
+}
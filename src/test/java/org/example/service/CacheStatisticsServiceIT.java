@@ -0,0 +1,153 @@
+package org.example.service;
+
+import org.example.dto.CacheRegionStats;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheStatisticsServiceIT {
+
+    private static final String AUTHOR_REGION = "author";
+    private static final String QUERY_REGION = "default-query-results-region";
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testAuthorReads_AreServedFromCache() {
+        // Given
+        Author author = new Author();
+        author.setName("Cached Author");
+        Long id = authorRepository.save(author).getId();
+        long hitsBefore = region(AUTHOR_REGION).getHits();
+
+        // When - két külön tranzakció (nincs közös persistence context)
+        authorRepository.findById(id);
+        authorRepository.findById(id);
+
+        // Then
+        assertTrue(region(AUTHOR_REGION).getHits() >= hitsBefore + 2);
+    }
+
+    @Test
+    public void testAuthorUpdate_InvalidatesCachedEntry() {
+        // Given
+        Author author = new Author();
+        author.setName("Old Name");
+        Long id = authorRepository.save(author).getId();
+        authorRepository.findById(id);
+
+        // When
+        Author loaded = authorRepository.findById(id).orElseThrow();
+        loaded.setName("New Name");
+        authorRepository.save(loaded);
+
+        // Then
+        assertEquals("New Name", authorRepository.findById(id).orElseThrow().getName());
+    }
+
+    @Test
+    public void testFindByIsbn_UsesQueryCacheAndSeesNewWrites() {
+        // Given
+        Author author = new Author();
+        author.setName("Query Cache Author");
+        author = authorRepository.save(author);
+        Book book = new Book();
+        book.setTitle("Cached Book");
+        book.setIsbn("cache-1");
+        book.setAuthor(author);
+        bookRepository.save(book);
+        bookRepository.findByIsbn("cache-1");
+        long hitsBefore = region(QUERY_REGION).getHits();
+
+        // When
+        bookRepository.findByIsbn("cache-1");
+
+        // Then
+        assertTrue(region(QUERY_REGION).getHits() > hitsBefore);
+
+        // Új könyv a táblában: a lekérdezés cache nem adhat elavult eredményt
+        assertTrue(bookRepository.findByIsbn("cache-2").isEmpty());
+        Book other = new Book();
+        other.setTitle("Other Book");
+        other.setIsbn("cache-2");
+        other.setAuthor(author);
+        bookRepository.save(other);
+        assertTrue(bookRepository.findByIsbn("cache-2").isPresent());
+    }
+
+    @Test
+    public void testAuthorBooks_FollowBookCreateMoveAndDelete() {
+        // Given - a szerzők könyvlistáját előre betöltjük (egy gyűjtemény cache ezt tárolná el).
+        // Sima repository írások: a könyvszám natív UPDATE-je a teljes cache-t üríti, az elfedné a hibát
+        Author first = new Author();
+        first.setName("First Author");
+        first = authorRepository.save(first);
+        Author second = new Author();
+        second.setName("Second Author");
+        second = authorRepository.save(second);
+        assertEquals(List.of(), bookIdsOf(first.getId()));
+        assertEquals(List.of(), bookIdsOf(second.getId()));
+
+        // Létrehozás
+        Book book = new Book();
+        book.setTitle("Moving Book");
+        book.setAuthor(first);
+        book = bookRepository.save(book);
+        assertEquals(List.of(book.getId()), bookIdsOf(first.getId()));
+
+        // Áthelyezés a másik szerzőhöz
+        book.setAuthor(second);
+        book = bookRepository.save(book);
+        assertEquals(List.of(), bookIdsOf(first.getId()));
+        assertEquals(List.of(book.getId()), bookIdsOf(second.getId()));
+
+        // Törlés
+        bookRepository.delete(book);
+        assertEquals(List.of(), bookIdsOf(second.getId()));
+    }
+
+    // Külön tranzakcióban, a szerző books gyűjteményén keresztül
+    private List<Long> bookIdsOf(Long authorId) {
+        return transactionTemplate.execute(status -> authorRepository.findById(authorId).orElseThrow()
+                .getBooks().stream()
+                .map(Book::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private CacheRegionStats region(String name) {
+        return cacheStatisticsService.getStatistics().stream()
+                .filter(stats -> stats.getRegion().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Missing cache region: " + name));
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.service;
+
+import org.example.dto.CatalogChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeBufferTest {
+
+    @Test
+    void readAfter_ShouldReturnChangesInOrderAcrossWraparound() {
+        // Given: 3 elemű puffer, 5 esemény
+        ChangeBuffer buffer = new ChangeBuffer(3);
+        for (long id = 1; id <= 5; id++) {
+            assertEquals(id, buffer.append(change(id)));
+        }
+
+        // When
+        List<CatalogChange> changes = buffer.readAfter(2, 10);
+
+        // Then: a 3-5. események, az átfordulás ellenére sorrendben
+        assertEquals(List.of(3L, 4L, 5L), changes.stream().map(CatalogChange::getId).collect(Collectors.toList()));
+        assertEquals(5, buffer.head());
+    }
+
+    @Test
+    void readAfter_ShouldLimitBatchSize() {
+        ChangeBuffer buffer = new ChangeBuffer(10);
+        for (long id = 1; id <= 5; id++) {
+            buffer.append(change(id));
+        }
+
+        List<CatalogChange> changes = buffer.readAfter(0, 2);
+
+        assertEquals(2, changes.size());
+        assertEquals(1L, changes.get(0).getId());
+        assertTrue(buffer.readAfter(5, 10).isEmpty());
+    }
+
+    @Test
+    void readAfter_ShouldReturnNullForEvictedOrFuturePosition() {
+        ChangeBuffer buffer = new ChangeBuffer(3);
+        for (long id = 1; id <= 5; id++) {
+            buffer.append(change(id));
+        }
+
+        // Az 1. esemény utáni pozícióhoz a 2. kellene, de az már felülíródott
+        assertNull(buffer.readAfter(1, 10));
+        assertNull(buffer.readAfter(6, 10));
+        assertNotNull(buffer.readAfter(2, 10));
+    }
+
+    private static CatalogChange change(long id) {
+        return new CatalogChange("BOOK", id, "UPDATE", 0L);
+    }
+}
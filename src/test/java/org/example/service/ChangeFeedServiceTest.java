@@ -0,0 +1,218 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dto.BookSummary;
+import org.example.dto.CatalogChange;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogChangeEvent.Operation;
+import org.example.event.CatalogResetEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedServiceTest {
+
+    private final ChangeFeedService changeFeedService = new ChangeFeedService(
+            3, Duration.ofMinutes(1), Duration.ofHours(1), 2, Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        changeFeedService.shutdown();
+    }
+
+    @Test
+    void subscribe_WithoutLastEventId_ShouldSendPositionThenNewChanges() throws Exception {
+        // Given: a feliratkozás előtti változás nem jön át
+        changeFeedService.onCatalogChange(CatalogChangeEvent.authorSaved(Operation.CREATE, 7L, "Régi", 0L));
+        RecordingEmitter emitter = new RecordingEmitter();
+        changeFeedService.subscribe(null, emitter);
+
+        // When
+        changeFeedService.onCatalogChange(
+                CatalogChangeEvent.bookSaved(Operation.UPDATE, new BookSummary(5L, "Cím", "123", 7L, "Szerző"), 3L));
+
+        // Then
+        emitter.awaitEvents(2);
+        assertEquals(List.of("position", "change"), emitter.names());
+        assertEquals(changeFeedService.eventId(1), emitter.events.get(0).id);
+        assertEquals(new CatalogChange("BOOK", 5L, "UPDATE", 3L), emitter.events.get(1).change);
+        assertEquals(changeFeedService.eventId(2), emitter.events.get(1).id);
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedChanges() throws Exception {
+        // Given
+        changeFeedService.onCatalogChange(CatalogChangeEvent.bookDeleted(1L, 0L));
+        changeFeedService.onCatalogChange(CatalogChangeEvent.bookDeleted(2L, 4L));
+        changeFeedService.onCatalogChange(CatalogChangeEvent.authorDeleted(3L, 1L));
+
+        // When: az 1. eseményig kapta meg a kliens
+        RecordingEmitter emitter = new RecordingEmitter();
+        changeFeedService.subscribe(changeFeedService.eventId(1), emitter);
+
+        // Then
+        emitter.awaitEvents(2);
+        assertEquals(List.of(new CatalogChange("BOOK", 2L, "DELETE", 4L), new CatalogChange("AUTHOR", 3L, "DELETE", 1L)),
+                emitter.changes());
+        assertEquals(changeFeedService.eventId(3), emitter.events.get(1).id);
+    }
+
+    @Test
+    void subscribe_WithEvictedOrForeignLastEventId_ShouldSendReset() throws Exception {
+        // Given: a 3 elemű pufferből az első két esemény kiesett
+        for (long id = 1; id <= 5; id++) {
+            changeFeedService.onCatalogChange(CatalogChangeEvent.bookDeleted(id, 0L));
+        }
+
+        // When
+        RecordingEmitter evicted = new RecordingEmitter();
+        changeFeedService.subscribe(changeFeedService.eventId(1), evicted);
+        RecordingEmitter foreign = new RecordingEmitter();
+        changeFeedService.subscribe("masik-2", foreign);
+
+        // Then: reset az aktuális pozícióval, utána az új változások
+        evicted.awaitEvents(1);
+        foreign.awaitEvents(1);
+        assertEquals(List.of("reset"), evicted.names());
+        assertEquals(changeFeedService.eventId(5), evicted.events.get(0).id);
+        assertEquals(List.of("reset"), foreign.names());
+
+        changeFeedService.onCatalogReset(new CatalogResetEvent(System.currentTimeMillis()));
+        evicted.awaitEvents(2);
+        assertEquals(List.of("reset", "reset"), evicted.names());
+        assertEquals(new CatalogChange("CATALOG", null, "RESET", null), evicted.events.get(1).change);
+    }
+
+    @Test
+    void publish_ShouldReachOtherSubscribers_WhenClientsStallOnEverySenderThread() throws Exception {
+        // Given: egy készenléti küldő szál, és annál több elakadt kliens
+        ChangeFeedService feed = new ChangeFeedService(3, Duration.ofMinutes(1), Duration.ofHours(1), 1,
+                Duration.ofSeconds(30), new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                feed.subscribe(null, new StalledEmitter(release));
+            }
+            RecordingEmitter emitter = new RecordingEmitter();
+            feed.subscribe(null, emitter);
+
+            // When
+            feed.onCatalogChange(CatalogChangeEvent.bookDeleted(1L, 0L));
+
+            // Then
+            emitter.awaitEvents(2);
+            assertEquals(List.of("position", "change"), emitter.names());
+        } finally {
+            release.countDown();
+            feed.shutdown();
+        }
+    }
+
+    @Test
+    void heartbeat_ShouldCloseStalledSubscribersAndKeepIdleOnesAlive() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ChangeFeedService feed = new ChangeFeedService(3, Duration.ofMinutes(1), Duration.ofMillis(50), 1,
+                Duration.ofMillis(100), registry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            feed.subscribe(null, new StalledEmitter(release));
+            RecordingEmitter idle = new RecordingEmitter();
+            feed.subscribe(null, idle);
+
+            // When: a position után csak heartbeat megy ki
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while ((idle.events.size() < 3 || registry.get("library.changes.subscribers").gauge().value() > 1)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            // Then: az elakadt feliratkozó lezárul, a tétlen megmarad
+            assertEquals(1.0, registry.get("library.changes.subscribers").gauge().value());
+            assertEquals("position", idle.events.get(0).name);
+            assertNull(idle.events.get(2).name);
+        } finally {
+            release.countDown();
+            feed.shutdown();
+        }
+    }
+
+    // A küldésben elakadó kliens (a release-ig nem veszi az adatot)
+    private static class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+
+        StalledEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Kliens lecsatlakozott");
+        }
+    }
+
+    // A kiküldött események rögzítése a HTTP válasz helyett
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Sent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            Set<DataWithMediaType> items = builder.build();
+            Sent sent = new Sent();
+            for (DataWithMediaType item : items) {
+                Object data = item.getData();
+                if (data instanceof CatalogChange) {
+                    sent.change = (CatalogChange) data;
+                } else {
+                    for (String line : data.toString().split("\n")) {
+                        if (line.startsWith("id:")) {
+                            sent.id = line.substring(3);
+                        } else if (line.startsWith("event:")) {
+                            sent.name = line.substring(6);
+                        }
+                    }
+                }
+            }
+            events.add(sent);
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(count, events.size());
+        }
+
+        List<String> names() {
+            return events.stream().map(sent -> sent.name).collect(Collectors.toList());
+        }
+
+        List<CatalogChange> changes() {
+            return events.stream().map(sent -> sent.change).collect(Collectors.toList());
+        }
+    }
+
+    private static class Sent {
+        private String id;
+        private String name;
+        private CatalogChange change;
+    }
+}
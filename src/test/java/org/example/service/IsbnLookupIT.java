@@ -0,0 +1,140 @@
+package org.example.service;
+
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class IsbnLookupIT {
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        author = new Author();
+        author.setName("Isbn Author");
+        author = libraryService.createAuthor(author);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testLookupFollowsBookWrites() {
+        // Given
+        Book book = libraryService.createBook(book("Isbn Book", "978-963-07-8384-2"));
+        assertTrue(bookSearchService.isReady());
+
+        // When & Then: más írásmóddal is megtalálható
+        Optional<Book> found = bookSearchService.findByIsbn("9789630783842");
+        assertTrue(found.isPresent());
+        assertEquals(book.getId(), found.get().getId());
+
+        // ISBN módosítás után a régi már nem, az új igen
+        book.setIsbn("963-8386-87-8");
+        libraryService.updateBook(book.getId(), book);
+        assertFalse(bookSearchService.findByIsbn("978-963-07-8384-2").isPresent());
+        assertTrue(bookSearchService.findByIsbn("9789638386878").isPresent());
+
+        // Törlés után sem
+        libraryService.deleteBook(book.getId());
+        assertFalse(bookSearchService.findByIsbn("963-8386-87-8").isPresent());
+    }
+
+    @Test
+    public void testUnknownIsbnDoesNotReachDatabase() {
+        // Given
+        libraryService.createBook(book("Isbn Book", "978-963-07-8384-2"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When: érvényes, de nem létező ISBN-ek
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(bookSearchService.findByIsbn(isbn(i)).isPresent());
+        }
+
+        // Then
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testNonIsbnValuesMatchOnlyExactly() {
+        // Given: belső azonosító ISBN helyett
+        Book book = libraryService.createBook(book("Seed Book", "seed-1"));
+
+        // When & Then: nem kerül az indexbe, de pontos egyezéssel megtalálható
+        assertEquals(book.getId(), bookSearchService.findByIsbn("seed-1").orElseThrow().getId());
+        assertFalse(bookSearchService.findByIsbn("1").isPresent());
+        assertFalse(bookSearchService.findByIsbn("other-1").isPresent());
+    }
+
+    @Test
+    public void testLookupMatchesTheSameWayBeforeTheIndexIsReady() {
+        // Given
+        Book book = libraryService.createBook(book("Isbn Book", "0-8044-2957-X"));
+        ReflectionTestUtils.setField(bookSearchService, "ready", false);
+        try {
+            // When & Then: más írásmóddal az adatbázisból is megtalálható
+            assertEquals(book.getId(), bookSearchService.findByIsbn("978-0-8044-2957-3").orElseThrow().getId());
+            assertEquals(book.getId(), bookSearchService.findByIsbn("080442957x").orElseThrow().getId());
+            assertFalse(bookSearchService.findByIsbn("9789630783842").isPresent());
+        } finally {
+            ReflectionTestUtils.setField(bookSearchService, "ready", true);
+        }
+        assertEquals(book.getId(), bookSearchService.findByIsbn("978-0-8044-2957-3").orElseThrow().getId());
+    }
+
+    // Érvényes ISBN-13 a megadott sorszámmal
+    private static String isbn(long n) {
+        String body = String.format("978%09d", n);
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+
+    private Book book(String title, String isbn) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setAuthor(author);
+        return book;
+    }
+}
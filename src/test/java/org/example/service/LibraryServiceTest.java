@@ -1,5 +1,7 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.event.CatalogVersion;
 import org.example.exception.ResourceNotFoundException;
 import org.example.model.Author;
 import org.example.model.Book;
@@ -10,8 +12,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +34,16 @@ class LibraryServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private AuthorBookCounter authorBookCounter;
+
+    @Mock
+    private AuthorService authorService;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new CatalogVersion(), mock(PlatformTransactionManager.class),
+            Duration.ofSeconds(1), new SimpleMeterRegistry());
+
     @InjectMocks
     private LibraryService libraryService;
 
@@ -138,20 +153,18 @@ class LibraryServiceTest {
 
     @Test
     void deleteAuthor_ShouldDeleteAuthor_WhenExists() {
-        // Given
-        when(authorRepository.findById(1L)).thenReturn(Optional.of(testAuthor));
-
         // When
         libraryService.deleteAuthor(1L);
 
-        // Then
-        verify(authorRepository).delete(testAuthor);
+        // Then: halmazalapú törlés, a szerző betöltése nélkül
+        verify(authorService).deleteAuthor(1L);
+        verify(authorRepository, never()).findById(any());
     }
 
     @Test
     void deleteAuthor_ShouldThrowException_WhenNotExists() {
         // Given
-        when(authorRepository.findById(999L)).thenReturn(Optional.empty());
+        when(authorService.deleteAuthor(999L)).thenThrow(new ResourceNotFoundException("Author not found with id: 999"));
 
         // When & Then
         assertThrows(
@@ -216,6 +229,7 @@ class LibraryServiceTest {
         assertEquals("Test Book", result.getTitle());
         assertEquals(testAuthor, result.getAuthor());
         verify(bookRepository).save(testBook);
+        verify(authorBookCounter).bookAdded(testAuthor);
     }
 
     @Test
@@ -254,6 +268,7 @@ class LibraryServiceTest {
         assertEquals("987-654-321", testBook.getIsbn());
         assertEquals(newAuthor, testBook.getAuthor());
         verify(bookRepository).save(testBook);
+        verify(authorBookCounter).bookMoved(testAuthor, newAuthor);
     }
 
     @Test
@@ -276,6 +291,7 @@ class LibraryServiceTest {
         assertEquals(testAuthor, testBook.getAuthor()); // Eredeti szerző marad
         verify(bookRepository).save(testBook);
         verify(authorRepository, never()).findById(any()); // Nem hívja a szerző keresést
+        verifyNoInteractions(authorBookCounter);
     }
 
     @Test
@@ -323,6 +339,7 @@ class LibraryServiceTest {
 
         // Then
         verify(bookRepository).delete(testBook);
+        verify(authorBookCounter).bookRemoved(testAuthor);
     }
 
     @Test
@@ -0,0 +1,167 @@
+package org.example.service;
+
+import org.example.dto.AuthorPatch;
+import org.example.dto.BookPatch;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ResourceNotFoundException;
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class PatchIT {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Author author;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        author = new Author();
+        author.setName("Patch Author");
+        author = libraryService.createAuthor(author);
+        book = new Book();
+        book.setTitle("Old Title");
+        book.setIsbn("978-963-07-8384-2");
+        book.setAuthor(author);
+        book = libraryService.createBook(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testRetitleIsOneStatement() {
+        // Given: a könyv a második szintű cache-ben van
+        Long version = bookRepository.findById(book.getId()).orElseThrow().getVersion();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        BookPatch result = bookService.patchBook(book.getId(), new BookPatch(version, "New Title", null));
+
+        // Then: egyetlen utasítás, a válasz a friss állapot
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(version + 1, result.getVersion());
+        assertEquals("New Title", result.getTitle());
+        assertEquals("978-963-07-8384-2", result.getIsbn());
+
+        // A cache-ből sem a régi állapot jön vissza, a keresőindex is követi
+        Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals("New Title", reloaded.getTitle());
+        assertEquals(version + 1, reloaded.getVersion());
+        assertEquals("New Title", bookSearchService.findByIsbn("9789630783842").orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testStateLoadedBeforeThePatchCannotReenterTheCache() {
+        // Given: egy olvasó a PATCH commitja előtt kezdett, és a régi sort olvasta be
+        Long version = bookRepository.findById(book.getId()).orElseThrow().getVersion();
+        SessionFactoryImplementor factory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = factory.getMetamodel().entityPersister(Book.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        Object key = access.generateCacheKey(book.getId(), persister, factory, null);
+        try (Session reader = factory.openSession()) {
+            Object staleEntry = access.get((SharedSessionContractImplementor) reader, key);
+
+            // When
+            bookService.patchBook(book.getId(), new BookPatch(version, "New Title", null));
+
+            // Then: a régi állapotot a commit után sem teheti vissza a cache-be
+            assertFalse(access.putFromLoad((SharedSessionContractImplementor) reader, key, staleEntry, version));
+        }
+        assertEquals("New Title", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testIsbnPatchUpdatesLookups() {
+        // Given
+        Long version = bookRepository.findById(book.getId()).orElseThrow().getVersion();
+        assertTrue(bookRepository.findByIsbn("978-963-07-8384-2").isPresent());
+
+        // When
+        bookService.patchBook(book.getId(), new BookPatch(version, null, "963-8386-87-8"));
+
+        // Then: a lekérdezés cache és az ISBN index sem ad elavult találatot
+        assertFalse(bookRepository.findByIsbn("978-963-07-8384-2").isPresent());
+        assertTrue(bookRepository.findByIsbn("963-8386-87-8").isPresent());
+        assertFalse(bookSearchService.findByIsbn("978-963-07-8384-2").isPresent());
+        assertTrue(bookSearchService.findByIsbn("9789638386878").isPresent());
+    }
+
+    @Test
+    public void testStaleVersionAndMissingBook() {
+        Long version = bookRepository.findById(book.getId()).orElseThrow().getVersion();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> bookService.patchBook(book.getId(), new BookPatch(version - 1, "Stale", null)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> bookService.patchBook(book.getId() + 1000, new BookPatch(version, "Missing", null)));
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.patchBook(book.getId(), new BookPatch(version, null, null)));
+        assertEquals("Old Title", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testAuthorRename() {
+        // Given
+        Long version = authorRepository.findById(author.getId()).orElseThrow().getVersion();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        AuthorPatch result = authorService.patchAuthor(author.getId(), new AuthorPatch(version, "Renamed Author"));
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(version + 1, result.getVersion());
+        assertEquals("Renamed Author", authorRepository.findById(author.getId()).orElseThrow().getName());
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> authorService.patchAuthor(author.getId(), new AuthorPatch(version, "Stale")));
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.Author;
+import org.example.service.SerializedFragmentCache.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedFragmentCacheTest {
+
+    private SerializedFragmentCache cache;
+
+    // A "tárolt" szerzők és a betöltő által kért azonosítók
+    private Map<Long, Author> authors;
+    private final List<List<Long>> loads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cache = new SerializedFragmentCache(new ObjectMapper(), new MappingJackson2CborHttpMessageConverter(),
+                new SimpleMeterRegistry(), 1 << 20);
+        authors = Arrays.asList(author(1L, "First", 0L), author(2L, "Second", 0L)).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+    }
+
+    @Test
+    void fragments_ShouldLoadOnlyMissingOrChangedEntities() throws Exception {
+        // Given
+        render(keys(1L, 2L));
+        assertEquals(Arrays.asList(1L, 2L), loads.get(0));
+
+        // When: a 2-es szerző módosul
+        authors.put(2L, author(2L, "Renamed", 1L));
+        String json = render(keys(1L, 2L));
+
+        // Then
+        assertEquals(2, loads.size());
+        assertEquals(List.of(2L), loads.get(1));
+        assertTrue(json.startsWith("[{\"id\":1,"));
+        assertTrue(json.contains("\"Renamed\""));
+        assertFalse(json.contains("\"Second\""));
+
+        // Változatlan állapotnál nincs betöltés
+        render(keys(1L, 2L));
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void fragments_ShouldSkipEntitiesDeletedWhileLoading() throws Exception {
+        // Given
+        authors.remove(2L);
+
+        // When
+        String json = render(keys(1L, 2L));
+
+        // Then
+        assertTrue(json.startsWith("[{\"id\":1,"));
+        assertEquals(1, json.chars().filter(c -> c == '{').count());
+    }
+
+    @Test
+    void fragments_ShouldAssembleCborArrayWithSameFieldsAsJson() throws Exception {
+        // When
+        byte[] cbor = renderBytes(keys(Format.CBOR, 1L, 2L));
+        String json = render(keys(Format.JSON, 1L, 2L));
+
+        // Then: külön cache bejegyzés formátumonként, azonos tartalom
+        assertEquals(2, loads.size());
+        assertEquals(new ObjectMapper().readTree(json), new CBORMapper().readTree(cbor));
+        assertTrue(cbor.length < json.length());
+    }
+
+    @Test
+    void writeArray_ShouldProduceEmptyArray_WhenNoFragments() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Format.JSON.writeArray(List.of(), out);
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, Format.JSON.arrayLength(List.of()));
+    }
+
+    @Test
+    void forAccept_ShouldPreferJsonUnlessCborIsRankedFirst() {
+        assertEquals(Format.JSON, Format.forAccept(null));
+        assertEquals(Format.JSON, Format.forAccept("*/*"));
+        assertEquals(Format.CBOR, Format.forAccept("application/cbor"));
+        assertEquals(Format.CBOR, Format.forAccept("application/json;q=0.5, application/cbor"));
+        assertEquals(Format.JSON, Format.forAccept("application/cbor;q=0.5, application/json"));
+        assertEquals("\"books-1-cbor\"", Format.CBOR.etag("\"books-1\""));
+    }
+
+    private List<SerializedFragmentCache.Key> keys(Long... ids) {
+        return keys(Format.JSON, ids);
+    }
+
+    private List<SerializedFragmentCache.Key> keys(Format format, Long... ids) {
+        return Arrays.stream(ids)
+                .map(id -> new SerializedFragmentCache.Key(format, Author.class, id,
+                        authors.containsKey(id) ? authors.get(id).getVersion() : 0L, null))
+                .collect(Collectors.toList());
+    }
+
+    private String render(List<SerializedFragmentCache.Key> keys) throws Exception {
+        return new String(renderBytes(keys), StandardCharsets.UTF_8);
+    }
+
+    private byte[] renderBytes(List<SerializedFragmentCache.Key> keys) throws Exception {
+        Format format = keys.get(0).getFormat();
+        List<byte[]> fragments = cache.fragments(keys,
+                ids -> {
+                    loads.add(new ArrayList<>(ids));
+                    return ids.stream().map(authors::get).filter(Objects::nonNull).collect(Collectors.toList());
+                },
+                author -> new SerializedFragmentCache.Key(format, Author.class, author.getId(), author.getVersion(), null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.writeArray(fragments, out);
+        assertEquals(out.size(), format.arrayLength(fragments));
+        return out.toByteArray();
+    }
+
+    private static Author author(Long id, String name, Long version) {
+        Author author = new Author();
+        author.setId(id);
+        author.setName(name);
+        author.setVersion(version);
+        return author;
+    }
+}
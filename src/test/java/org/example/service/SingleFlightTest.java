@@ -0,0 +1,183 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.event.CatalogChangeEvent;
+import org.example.event.CatalogVersion;
+import org.example.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SingleFlightTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8, task -> {
+            Thread thread = new Thread(task);
+            threads.add(thread);
+            return thread;
+        });
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void read_ShouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        // Given: a leader betöltése addig tart, amíg el nem engedjük
+        SingleFlight singleFlight = singleFlight(Duration.ofSeconds(10));
+        Future<String> leader = executor.submit(() -> singleFlight.read("book", 1L, this::slowLoad));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+
+        // When: közben öt azonos kérés érkezik
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.read("book", 1L, this::slowLoad)));
+        }
+        waitUntilBlocked(6);
+        release.countDown();
+
+        // Then: egyetlen betöltés, mindenki ugyanazt kapja
+        assertEquals("book-1", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("book-1", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(5.0, meterRegistry.get("library.single-flight.calls").tag("outcome", "shared").counter().count());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void read_ShouldGiveEachFollowerItsOwnCopy() throws Exception {
+        // Given: módosítható eredmény (mint egy entitás), a leader betöltése folyamatban
+        SingleFlight singleFlight = singleFlight(Duration.ofSeconds(10));
+        Future<List<String>> leader = executor.submit(() -> singleFlight.read("books", 1L, this::slowListLoad, ArrayList::new));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+        Future<List<String>> first = executor.submit(() -> singleFlight.read("books", 1L, this::slowListLoad, ArrayList::new));
+        Future<List<String>> second = executor.submit(() -> singleFlight.read("books", 1L, this::slowListLoad, ArrayList::new));
+        waitUntilBlocked(3);
+
+        // When
+        release.countDown();
+
+        // Then: egy betöltés, de senki nem kapja meg a másik példányát
+        List<String> leaderResult = leader.get(5, TimeUnit.SECONDS);
+        List<String> firstResult = first.get(5, TimeUnit.SECONDS);
+        List<String> secondResult = second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, loads.get());
+        assertEquals(List.of("book-1"), firstResult);
+        assertEquals(List.of("book-1"), secondResult);
+        assertNotSame(leaderResult, firstResult);
+        assertNotSame(leaderResult, secondResult);
+        assertNotSame(firstResult, secondResult);
+    }
+
+    @Test
+    void read_ShouldNotJoinFlightStartedBeforeAWrite() throws Exception {
+        // Given
+        SingleFlight singleFlight = singleFlight(Duration.ofSeconds(10));
+        Future<String> beforeWrite = executor.submit(() -> singleFlight.read("book", 1L, this::slowLoad));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+
+        // When: közben véglegesített módosítás
+        catalogVersion.onCatalogChange(CatalogChangeEvent.bookDeleted(1L, 0L));
+        String afterWrite = singleFlight.read("book", 1L, () -> "fresh");
+
+        // Then: az írás utáni kérés saját betöltést indít
+        assertEquals("fresh", afterWrite);
+        release.countDown();
+        assertEquals("book-1", beforeWrite.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void read_ShouldLoadItself_WhenWaitIsExceeded() throws Exception {
+        // Given
+        SingleFlight singleFlight = singleFlight(Duration.ofMillis(50));
+        executor.submit(() -> singleFlight.read("book", 1L, this::slowLoad));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+
+        // When & Then
+        assertEquals("own", singleFlight.read("book", 1L, () -> "own"));
+        assertEquals(1.0, meterRegistry.get("library.single-flight.calls").tag("outcome", "timeout").counter().count());
+    }
+
+    @Test
+    void read_ShouldPropagateLeaderFailureToFollowers() throws Exception {
+        // Given
+        SingleFlight singleFlight = singleFlight(Duration.ofSeconds(10));
+        Future<String> leader = executor.submit(() -> singleFlight.read("book", 2L, () -> {
+            slowLoad();
+            throw new ResourceNotFoundException("Book not found with id: 2");
+        }));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+        Future<String> follower = executor.submit(() -> singleFlight.read("book", 2L, this::slowLoad));
+        waitUntilBlocked(2);
+
+        // When
+        release.countDown();
+
+        // Then
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof ResourceNotFoundException);
+        assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private SingleFlight singleFlight(Duration maxWait) {
+        return new SingleFlight(catalogVersion, mock(PlatformTransactionManager.class), maxWait, meterRegistry);
+    }
+
+    private String slowLoad() {
+        loads.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "book-1";
+    }
+
+    private List<String> slowListLoad() {
+        return new ArrayList<>(List.of(slowLoad()));
+    }
+
+    // A leader a betöltésben, a followers az eredményre várva állnak
+    private void waitUntilBlocked(int count) throws InterruptedException {
+        waitUntil(() -> threads.stream().filter(thread -> thread.getState() == Thread.State.TIMED_WAITING).count() == count);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for condition");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.service;
+
+import org.example.model.Author;
+import org.example.model.Book;
+import org.example.repository.AuthorRepository;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.example.jdbc.StatementBudget.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.*;
+
+// A LibraryService műveleteinek SQL utasításkerete (a commitot is beleértve); a LibraryServiceTest mockolt
+// repositorykkal fut, ezért a keretek itt, valódi adatbázissal ellenőrződnek
+@SpringBootTest
+@ActiveProfiles("test")
+public class StatementBudgetIT {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        author = new Author();
+        author.setName("Budget Author");
+        author = libraryService.createAuthor(author);
+    }
+
+    @Test
+    void createBook_ShouldStayWithinBudget() throws Throwable {
+        Book book = book("Budget Book", "100-1");
+
+        // A szerző betöltése (létezés), a könyv beszúrása, a könyvszám célzott frissítése
+        Book saved = assertMaxStatements(3, () -> libraryService.createBook(book));
+
+        assertNotNull(saved.getId());
+    }
+
+    @Test
+    void getBookById_ShouldStayWithinBudget() throws Throwable {
+        Book saved = libraryService.createBook(book("Budget Book", "100-2"));
+
+        // A könyv a második szintű cache-ből jön, csak a szerzője töltődik be
+        assertMaxStatements(1, () -> libraryService.getBookById(saved.getId()));
+    }
+
+    // A könyvek száma nem számít: a törlés halmazalapú
+    @Test
+    void deleteAuthor_ShouldNotDependOnBookCount() throws Throwable {
+        for (int i = 0; i < 20; i++) {
+            libraryService.createBook(book("Budget Book " + i, "200-" + i));
+        }
+
+        assertMaxStatements(2, () -> libraryService.deleteAuthor(author.getId()));
+
+        assertFalse(authorRepository.existsById(author.getId()));
+        assertEquals(0, bookRepository.count());
+    }
+
+    private Book book(String title, String isbn) {
+        Author reference = new Author();
+        reference.setId(author.getId());
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setAuthor(reference);
+        return book;
+    }
+}
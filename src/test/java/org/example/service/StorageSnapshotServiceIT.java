@@ -0,0 +1,62 @@
+package org.example.service;
+
+import org.example.dto.StorageSnapshot;
+import org.example.model.Author;
+import org.example.repository.AuthorRepository;
+import org.h2.tools.Restore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Éles profil fájl alapú adatbázissal: a séma validálás, a pillanatkép és a visszaállítás együtt
+@SpringBootTest
+@ActiveProfiles("prod")
+public class StorageSnapshotServiceIT {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("library.storage.data-dir", () -> dataDir.toString());
+    }
+
+    @Autowired
+    private StorageSnapshotService storageSnapshotService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Test
+    public void testSnapshotCanBeRestoredIntoEmptyDirectory(@TempDir Path restoreDir) throws Exception {
+        // Given
+        Author author = new Author();
+        author.setName("Snapshot Author");
+        authorRepository.save(author);
+
+        // When
+        StorageSnapshot snapshot = storageSnapshotService.createSnapshot();
+        Restore.execute(snapshot.getFile(), restoreDir.toString(), "librarydb");
+
+        // Then
+        assertTrue(snapshot.getSizeBytes() > 0);
+        assertTrue(Files.exists(restoreDir.resolve("librarydb.mv.db")));
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + restoreDir.resolve("librarydb"), "SA", "");
+             ResultSet rs = connection.createStatement().executeQuery("SELECT name FROM author")) {
+            assertTrue(rs.next());
+            assertEquals("Snapshot Author", rs.getString(1));
+        }
+    }
+}
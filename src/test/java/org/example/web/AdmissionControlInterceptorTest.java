@@ -0,0 +1,158 @@
+package org.example.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlInterceptorTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlInterceptor interceptor;
+    private HandlerMethod scan;
+    private HandlerMethod lookup;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        AdmissionProperties.Policy policy = new AdmissionProperties.Policy();
+        policy.setRate(100);
+        policy.setBurst(100);
+        policy.setClientRate(1);
+        policy.setClientBurst(2);
+        policy.setMaxConcurrent(3);
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getClasses().put("scan", policy);
+
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new AdmissionControlInterceptor(properties, meterRegistry, clock::get);
+        scan = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("scan"));
+        lookup = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("lookup"));
+    }
+
+    @Test
+    void preHandle_ShouldShedClientOverItsRate_WithRetryAfter() throws Exception {
+        // Given: a kliens lökete két kérés
+        assertTrue(admit("crawler"));
+        assertTrue(admit("crawler"));
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean admitted = interceptor.preHandle(request("crawler"), response, scan);
+
+        // Then: elutasítva, de egy másik kliens és a jelöletlen végpont továbbra is átjut
+        assertFalse(admitted);
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(admit("other"));
+        assertTrue(interceptor.preHandle(request("crawler"), new MockHttpServletResponse(), lookup));
+        assertEquals(1.0, meterRegistry.get("library.admission.requests")
+                .tags("class", "scan", "outcome", "rejected", "reason", "client-rate").counter().count());
+    }
+
+    @Test
+    void preHandle_ShouldKeyClientsOnRemoteAddress_NotOnClientSuppliedHeader() throws Exception {
+        // Given: a crawler minden kéréshez új X-Client-Id értéket küld, ugyanarról a címről
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request("10.0.0.1");
+            request.addHeader("X-Client-Id", "random-" + i);
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), scan));
+        }
+
+        // When
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("X-Client-Id", "random-2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Then: a cím kerete elfogyott
+        assertFalse(interceptor.preHandle(request, response, scan));
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    void preHandle_ShouldLimitConcurrency_UntilRequestsComplete() throws Exception {
+        // Given: három folyamatban lévő kérés (különböző kliensektől)
+        MockHttpServletRequest first = request("a");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), scan));
+        assertTrue(admit("b"));
+        assertTrue(admit("c"));
+
+        // When & Then: a negyedik nem fér be
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("d"), response, scan));
+        assertEquals(429, response.getStatus());
+        assertEquals(3.0, meterRegistry.get("library.admission.in-flight").gauge().value());
+
+        // Az első befejeződése után igen
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), scan, null);
+        assertTrue(admit("d"));
+    }
+
+    @Test
+    void preHandle_ShouldNotConsumeClientTokens_WhenRejectedForConcurrency() throws Exception {
+        // Given: a három engedély foglalt
+        MockHttpServletRequest first = request("a");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), scan));
+        assertTrue(admit("b"));
+        assertTrue(admit("c"));
+
+        // When: a "d" kliens a lökete (2) fölött is próbálkozik
+        for (int i = 0; i < 3; i++) {
+            assertFalse(admit("d"));
+        }
+
+        // Then: a tokenjei megmaradtak
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), scan, null);
+        assertTrue(admit("d"));
+        assertEquals(0.0, meterRegistry.get("library.admission.requests")
+                .tags("class", "scan", "outcome", "rejected", "reason", "client-rate").counter().count());
+    }
+
+    @Test
+    void preHandle_ShouldRefundClientToken_WhenClassRateRejects() throws Exception {
+        // Given: osztályszinten 1 token/s, kliensenként 10 másodpercenként 1
+        AdmissionProperties.Policy policy = new AdmissionProperties.Policy();
+        policy.setRate(1);
+        policy.setBurst(1);
+        policy.setClientRate(0.1);
+        policy.setClientBurst(1);
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getClasses().put("scan", policy);
+        interceptor = new AdmissionControlInterceptor(properties, new SimpleMeterRegistry(), clock::get);
+        assertTrue(admit("a"));
+
+        // When: a "b" kliens az osztálykereten akad el
+        assertFalse(admit("b"));
+        clock.addAndGet(1_000_000_000L);
+
+        // Then: az osztálykeret feltöltődése után a saját tokenjével átjut
+        assertTrue(admit("b"));
+    }
+
+    private boolean admit(String client) throws Exception {
+        return interceptor.preHandle(request(client), new MockHttpServletResponse(), scan);
+    }
+
+    private static MockHttpServletRequest request(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.setRemoteAddr(client);
+        return request;
+    }
+
+    static class Endpoints {
+
+        @Admission("scan")
+        public void scan() {
+        }
+
+        public void lookup() {
+        }
+    }
+}
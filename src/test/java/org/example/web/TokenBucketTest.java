@@ -0,0 +1,49 @@
+package org.example.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenRefillAtRate() {
+        // Given: 2 token/s, 3-as löket
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+
+        // When & Then: a löket elfogy
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND / 2, bucket.tryAcquire(0));
+
+        // Fél másodperc alatt egy token töltődik vissza
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+        assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+
+        // Hosszú szünet után sem gyűlik több a lökethatárnál
+        long later = 100 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void refund_ShouldReturnTokenUpToCapacity() {
+        // Given
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0) > 0);
+
+        // When: visszaadjuk, kétszer is
+        bucket.refund();
+        bucket.refund();
+
+        // Then: újra felhasználható, de a kapacitásnál több nem gyűlik
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0) > 0);
+    }
+}
@@ -0,0 +1,31 @@
+package scratch;
+
+import org.example.Main;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+class ScratchTest {
+    @Autowired MockMvc mvc;
+
+    String p(org.springframework.test.web.servlet.RequestBuilder rb) throws Exception {
+        return mvc.perform(rb).andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void run() throws Exception {
+        System.out.println("SCRATCH " + p(get("/api/books/search?q=harry")));
+        System.out.println("SCRATCH " + p(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Carrie\",\"isbn\":\"x1\",\"author\":{\"id\":2}}")));
+        System.out.println("SCRATCH " + p(put("/api/authors/2").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Richard Bachman\"}")));
+        System.out.println("SCRATCH " + p(get("/api/books/search?q=bachman carr")));
+        System.out.println("SCRATCH " + p(delete("/api/books/1")));
+        System.out.println("SCRATCH " + p(get("/api/books/search?q=harry")));
+    }
+}